@@ -0,0 +1,83 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.media.MediaDataSource;
+import android.net.Uri;
+import android.os.Build;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.annotation.RequiresApi;
+
+import com.autoai.watermarkvideoplayer.core.BlockCache;
+import com.autoai.watermarkvideoplayer.core.BlockSource;
+import com.autoai.watermarkvideoplayer.core.FileBlockSource;
+
+import java.io.IOException;
+
+/**
+ * MediaDataSource that serves MediaPlayer reads from a {@link BlockCache}, smoothing out
+ * slow removable storage during seeks and loop restarts
+ */
+@RequiresApi(Build.VERSION_CODES.M)
+class CachedMediaDataSource extends MediaDataSource {
+    private static final String TAG = "CachedMediaDataSource";
+
+    private final BlockCache cache;
+
+    CachedMediaDataSource(String path) throws IOException {
+        this(new FileBlockSource(path));
+    }
+
+    CachedMediaDataSource(BlockSource source) throws IOException {
+        cache = new BlockCache(source);
+    }
+
+    /**
+     * Cached source for a file or content URI (e.g. from the system picker), read through
+     * the provider's file descriptor
+     *
+     * @return null if the URI does not resolve to a seekable file, e.g. a pipe from a
+     * streaming provider; play it with MediaPlayer.setDataSource(Context, Uri) instead
+     */
+    static CachedMediaDataSource open(Context context, Uri uri) throws IOException {
+        String scheme = uri.getScheme();
+        if (scheme == null || ContentResolver.SCHEME_FILE.equals(scheme)) {
+            return new CachedMediaDataSource(uri.getPath());
+        }
+        ParcelFileDescriptor fd = context.getContentResolver().openFileDescriptor(uri, "r");
+        if (fd == null) {
+            return null;
+        }
+        if (fd.getStatSize() < 0) {
+            // 不是普通文件，无法按位置读取
+            fd.close();
+            return null;
+        }
+        return new CachedMediaDataSource(
+                new FileBlockSource(new ParcelFileDescriptor.AutoCloseInputStream(fd)));
+    }
+
+    @Override
+    public int readAt(long position, byte[] buffer, int offset, int size) throws IOException {
+        return cache.readAt(position, buffer, offset, size);
+    }
+
+    @Override
+    public long getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Log.d(TAG, "Cache stats - hits: " + cache.getHits() + ", misses: " + cache.getMisses() +
+                ", inflight waits: " + cache.getInflightWaits() + ", prefetches: " + cache.getPrefetches() +
+                ", source bytes: " + cache.getSourceBytes());
+        cache.close();
+    }
+
+    BlockCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,130 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.content.Context;
+import android.graphics.SurfaceTexture;
+import android.util.AttributeSet;
+import android.view.TextureView;
+import android.view.View;
+
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+
+/**
+ * Surface placed behind the camera selector buttons, showing a live thumbnail of each
+ * camera under its button.
+ * <p>
+ * 缩略图由GLCameraVideoView的渲染线程直接绘制到本视图的SurfaceTexture，
+ * 按钮背景需为半透明才能透出画面。
+ */
+public class CameraThumbnailStrip extends TextureView
+        implements TextureView.SurfaceTextureListener, View.OnLayoutChangeListener {
+
+    private GLCameraVideoView videoView;
+    private View[] buttons;
+    private int backgroundColor;
+    private SurfaceTexture surface;
+
+    // 预分配，布局变化时复用
+    private final float[] rects = new float[CameraPosition.values().length * 4];
+    private final int[] stripLocation = new int[2];
+    private final int[] buttonLocation = new int[2];
+
+    public CameraThumbnailStrip(Context context) {
+        super(context);
+        init(context);
+    }
+
+    public CameraThumbnailStrip(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(context);
+    }
+
+    private void init(Context context) {
+        backgroundColor = context.getColor(R.color.surface);
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+    }
+
+    /**
+     * @param buttons one button per CameraPosition, in declaration order; null entries
+     *                get no thumbnail
+     */
+    public void bind(GLCameraVideoView videoView, View... buttons) {
+        this.videoView = videoView;
+        this.buttons = buttons;
+        addOnLayoutChangeListener(this);
+        for (View button : buttons) {
+            if (button != null) {
+                button.addOnLayoutChangeListener(this);
+            }
+        }
+        if (surface != null) {
+            videoView.setThumbnailTarget(surface, getWidth(), getHeight(), backgroundColor);
+            updateRects();
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        this.surface = surface;
+        if (videoView != null) {
+            videoView.setThumbnailTarget(surface, width, height, backgroundColor);
+            updateRects();
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        if (videoView != null) {
+            videoView.setThumbnailTarget(surface, width, height, backgroundColor);
+            updateRects();
+        }
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        this.surface = null;
+        if (videoView == null) {
+            return true;
+        }
+        // 渲染线程可能正在使用该表面，由它解除绑定后再释放
+        videoView.clearThumbnailTarget(surface);
+        return false;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        updateRects();
+    }
+
+    /**
+     * Button bounds relative to this view, normalized
+     */
+    private void updateRects() {
+        if (videoView == null || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        getLocationInWindow(stripLocation);
+        for (int i = 0; i < rects.length / 4; i++) {
+            View button = i < buttons.length ? buttons[i] : null;
+            int r = i * 4;
+            if (button == null || button.getWidth() == 0 || button.getHeight() == 0) {
+                rects[r] = 0.0f;
+                rects[r + 1] = 0.0f;
+                rects[r + 2] = 0.0f;
+                rects[r + 3] = 0.0f;
+                continue;
+            }
+            button.getLocationInWindow(buttonLocation);
+            rects[r] = (float) (buttonLocation[0] - stripLocation[0]) / getWidth();
+            rects[r + 1] = (float) (buttonLocation[1] - stripLocation[1]) / getHeight();
+            rects[r + 2] = (float) button.getWidth() / getWidth();
+            rects[r + 3] = (float) button.getHeight() / getHeight();
+        }
+        videoView.setThumbnailRects(rects);
+    }
+}
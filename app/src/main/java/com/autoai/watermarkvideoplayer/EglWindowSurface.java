@@ -0,0 +1,114 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.opengl.EGL14;
+import android.opengl.EGLConfig;
+import android.opengl.EGLContext;
+import android.opengl.EGLDisplay;
+import android.opengl.EGLExt;
+import android.opengl.EGLSurface;
+import android.util.Log;
+
+/**
+ * Secondary EGL window surface drawn from the renderer's own context, e.g. for the
+ * thumbnail TextureView or a frame tap's ImageReader.
+ * <p>
+ * 与GLSurfaceView共享同一上下文和纹理：{@link #makeCurrent()} 临时切换绘制目标，
+ * {@link #swapAndRestore()} 提交后切回主表面。交换间隔为0，不等待垂直同步。
+ * GL thread only, with the renderer's context current.
+ */
+class EglWindowSurface {
+    private static final String TAG = "EglWindowSurface";
+
+    private EGLDisplay display = EGL14.EGL_NO_DISPLAY;
+    private EGLSurface surface = EGL14.EGL_NO_SURFACE;
+    private EGLContext context = EGL14.EGL_NO_CONTEXT;
+    private EGLSurface savedDraw;
+    private EGLSurface savedRead;
+    private boolean swapIntervalSet = false;
+
+    /**
+     * @param window a Surface or SurfaceTexture
+     * @return false if there is no current context or the surface could not be created
+     */
+    boolean create(Object window) {
+        release();
+        EGLContext current = EGL14.eglGetCurrentContext();
+        if (current == EGL14.EGL_NO_CONTEXT) {
+            // GL线程尚未创建上下文，等onSurfaceCreated时再创建
+            return false;
+        }
+        display = EGL14.eglGetCurrentDisplay();
+        // 使用与主渲染上下文相同的配置，保证可以在同一上下文中切换表面
+        int[] configId = new int[1];
+        EGL14.eglQueryContext(display, current, EGL14.EGL_CONFIG_ID, configId, 0);
+        int[] attributes = {EGL14.EGL_CONFIG_ID, configId[0], EGL14.EGL_NONE};
+        EGLConfig[] configs = new EGLConfig[1];
+        int[] count = new int[1];
+        if (!EGL14.eglChooseConfig(display, attributes, 0, configs, 0, 1, count, 0) || count[0] == 0) {
+            Log.w(TAG, "No EGL config for window surface");
+            return false;
+        }
+        EGLSurface created = EGL14.eglCreateWindowSurface(display, configs[0], window,
+                new int[]{EGL14.EGL_NONE}, 0);
+        if (created == null || created == EGL14.EGL_NO_SURFACE) {
+            Log.w(TAG, "eglCreateWindowSurface failed: 0x" + Integer.toHexString(EGL14.eglGetError()));
+            return false;
+        }
+        surface = created;
+        context = current;
+        swapIntervalSet = false;
+        return true;
+    }
+
+    boolean isValid() {
+        return surface != EGL14.EGL_NO_SURFACE;
+    }
+
+    /**
+     * Make this surface the draw target, remembering the current one
+     *
+     * @return false (and the surface is released) if the switch failed
+     */
+    boolean makeCurrent() {
+        savedDraw = EGL14.eglGetCurrentSurface(EGL14.EGL_DRAW);
+        savedRead = EGL14.eglGetCurrentSurface(EGL14.EGL_READ);
+        if (!EGL14.eglMakeCurrent(display, surface, surface, context)) {
+            Log.w(TAG, "eglMakeCurrent failed: 0x" + Integer.toHexString(EGL14.eglGetError()));
+            release();
+            return false;
+        }
+        if (!swapIntervalSet) {
+            // 不等待垂直同步，避免阻塞主画面的渲染线程
+            EGL14.eglSwapInterval(display, 0);
+            swapIntervalSet = true;
+        }
+        return true;
+    }
+
+    /**
+     * Timestamp passed on to the consumer, e.g. Image.getTimestamp()
+     */
+    void setPresentationTime(long nanos) {
+        EGLExt.eglPresentationTimeANDROID(display, surface, nanos);
+    }
+
+    /**
+     * Submit the frame and switch back to the surface current before {@link #makeCurrent()}
+     *
+     * @return false if the swap failed
+     */
+    boolean swapAndRestore() {
+        boolean swapped = EGL14.eglSwapBuffers(display, surface);
+        EGL14.eglMakeCurrent(display, savedDraw, savedRead, context);
+        savedDraw = null;
+        savedRead = null;
+        return swapped;
+    }
+
+    void release() {
+        if (surface != EGL14.EGL_NO_SURFACE) {
+            EGL14.eglDestroySurface(display, surface);
+            surface = EGL14.EGL_NO_SURFACE;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.graphics.PixelFormat;
+import android.hardware.HardwareBuffer;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+import com.autoai.watermarkvideoplayer.core.FrameTapQueue;
+
+/**
+ * Delivers decoded video frames (the full 4-in-1 frame or one camera region, scaled to a
+ * requested size) to an analytics consumer without CPU copies.
+ * <p>
+ * 渲染线程把区域直接绘制进ImageReader的缓冲区（GPU缩放），消费者拿到的Image
+ * 与其HardwareBuffer（API 28+）指向同一块图形内存。每个消费者一个独立的有界队列：
+ * 队列满时丢弃最旧帧，缓冲区未归还时渲染线程跳过该消费者，慢消费者不会阻塞播放。
+ * <p>
+ * Create with {@link GLCameraVideoView#addFrameTap}, stop with
+ * {@link GLCameraVideoView#removeFrameTap}.
+ */
+public final class FrameTap {
+    private static final String TAG = "FrameTap";
+    // 已提交给ImageReader但监听线程尚未取走的帧数上限
+    private static final int MAX_PENDING = 2;
+    private static final long TAKE_TIMEOUT_MS = 100;
+
+    public interface Consumer {
+        /**
+         * Called on the tap's own thread for each frame, oldest first. The RGBA_8888 image
+         * is closed after this returns; use {@link Image#getHardwareBuffer()} (API 28+) to
+         * hand the buffer to GPU/NPU code without copying
+         */
+        void onFrame(Image image);
+    }
+
+    private final CameraPosition region;
+    private final int width;
+    private final int height;
+    final float[] crop;
+    private final Consumer consumer;
+    private final FrameTapQueue<Image> queue;
+    private final ImageReader reader;
+    private final HandlerThread readerThread;
+    private final EglWindowSurface windowSurface = new EglWindowSurface(); // GL线程
+
+    FrameTap(CameraPosition region, int width, int height, int queueDepth, Consumer consumer) {
+        if (width <= 0 || height <= 0 || queueDepth < 1) {
+            throw new IllegalArgumentException("width, height and queueDepth must be positive");
+        }
+        this.region = region;
+        this.width = width;
+        this.height = height;
+        this.crop = new float[]{region.x, region.y, region.width, region.height};
+        this.consumer = consumer;
+        this.queue = new FrameTapQueue<>(queueDepth, MAX_PENDING);
+        // 队列 + 消费者持有1帧 + 监听线程正在入队1帧，另留出未取走帧所占的缓冲区
+        int maxImages = queueDepth + 2 + MAX_PENDING;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            reader = ImageReader.newInstance(width, height, PixelFormat.RGBA_8888, maxImages,
+                    HardwareBuffer.USAGE_GPU_COLOR_OUTPUT | HardwareBuffer.USAGE_GPU_SAMPLED_IMAGE
+                            | HardwareBuffer.USAGE_CPU_READ_RARELY);
+        } else {
+            reader = ImageReader.newInstance(width, height, PixelFormat.RGBA_8888, maxImages);
+        }
+        readerThread = new HandlerThread("FrameTap-reader-" + region);
+        readerThread.start();
+        reader.setOnImageAvailableListener(this::onImageAvailable, new Handler(readerThread.getLooper()));
+        new Thread(this::deliverFrames, "FrameTap-" + region).start();
+    }
+
+    public CameraPosition getRegion() {
+        return region;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** Frames rendered into this tap's buffers */
+    public long getProducedFrames() {
+        return queue.getProducedFrames();
+    }
+
+    /** Frames handed to the consumer */
+    public long getDeliveredFrames() {
+        return queue.getDeliveredFrames();
+    }
+
+    /** Queued frames replaced by newer ones before the consumer took them */
+    public long getDroppedFrames() {
+        return queue.getDroppedFrames();
+    }
+
+    /** Video frames not rendered for this tap because its buffers were still in use */
+    public long getSkippedFrames() {
+        return queue.getSkippedFrames();
+    }
+
+    /** Frames delivered per second, averaged over about one second */
+    public float getDeliveredFps() {
+        return queue.getDeliveredFps(System.nanoTime());
+    }
+
+    /**
+     * GL thread: create the producer side on the renderer's (new) context
+     */
+    void onSurfaceCreated() {
+        if (!queue.isClosed()) {
+            windowSurface.create(reader.getSurface());
+        }
+    }
+
+    /**
+     * GL thread: switch rendering to this tap's next buffer
+     *
+     * @return false if the frame is skipped; otherwise the caller draws and then calls
+     * {@link #submitFrame(long)}
+     */
+    boolean beginFrame() {
+        if (!windowSurface.isValid() || !queue.tryBeginFrame()) {
+            return false;
+        }
+        if (!windowSurface.makeCurrent()) {
+            queue.cancelFrame();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * GL thread: queue the drawn buffer for the consumer and switch back to the view
+     */
+    void submitFrame(long timestampNanos) {
+        windowSurface.setPresentationTime(timestampNanos);
+        if (!windowSurface.swapAndRestore()) {
+            queue.cancelFrame();
+        }
+    }
+
+    /**
+     * GL thread: detach the producer; the consumer thread then releases the reader
+     */
+    void release() {
+        windowSurface.release();
+        queue.close();
+    }
+
+    private void onImageAvailable(ImageReader imageReader) {
+        while (true) {
+            Image image;
+            try {
+                image = imageReader.acquireNextImage();
+            } catch (IllegalStateException e) {
+                // 已达maxImages或读取器已关闭，留待下次回调
+                return;
+            } catch (UnsupportedOperationException e) {
+                // EGL配置与RGBA_8888不符（如无alpha的RGBX），此消费者无法工作，停用而不是崩溃
+                Log.w(TAG, "Tap " + region + " disabled: buffer format mismatch", e);
+                queue.close();
+                return;
+            }
+            if (image == null) {
+                return;
+            }
+            Image evicted = queue.offer(image);
+            if (evicted != null) {
+                evicted.close();
+            }
+        }
+    }
+
+    private void deliverFrames() {
+        try {
+            while (!queue.isClosed()) {
+                Image image = queue.take(TAKE_TIMEOUT_MS, System.nanoTime());
+                if (image == null) {
+                    continue;
+                }
+                try {
+                    consumer.onFrame(image);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Consumer failed on " + region + " frame", e);
+                } finally {
+                    image.close();
+                }
+            }
+            // 等监听线程退出后再关闭读取器，避免与acquireNextImage并发
+            readerThread.quitSafely();
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Image image;
+            while ((image = queue.drain()) != null) {
+                image.close();
+            }
+            reader.close();
+            Log.d(TAG, "Tap " + region + " closed: produced=" + queue.getProducedFrames()
+                    + " delivered=" + queue.getDeliveredFrames()
+                    + " dropped=" + queue.getDroppedFrames()
+                    + " skipped=" + queue.getSkippedFrames());
+        }
+    }
+}
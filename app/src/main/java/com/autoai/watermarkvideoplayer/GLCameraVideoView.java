@@ -1,16 +1,42 @@
 package com.autoai.watermarkvideoplayer;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.graphics.Color;
 import android.graphics.SurfaceTexture;
 import android.media.MediaPlayer;
 import android.net.Uri;
 import android.opengl.GLES11Ext;
 import android.opengl.GLES20;
 import android.opengl.GLSurfaceView;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.PowerManager;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.Surface;
 
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+import com.autoai.watermarkvideoplayer.core.FrameScheduler;
+import com.autoai.watermarkvideoplayer.core.FrameTrace;
+import com.autoai.watermarkvideoplayer.core.MediaClock;
+import com.autoai.watermarkvideoplayer.core.RenderGovernor;
+import com.autoai.watermarkvideoplayer.core.RenderLevel;
+import com.autoai.watermarkvideoplayer.core.RenderRegions;
+import com.autoai.watermarkvideoplayer.core.StreamSyncController;
+import com.autoai.watermarkvideoplayer.core.TimeSource;
+import com.autoai.watermarkvideoplayer.core.VideoLayout;
+import com.autoai.watermarkvideoplayer.core.ZoomState;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -28,25 +54,35 @@ public class GLCameraVideoView extends GLSurfaceView {
     private MediaPlayer mediaPlayer;
     private SurfaceTexture surfaceTexture;
 
-    public enum CameraPosition {
-        ALL(0.0f, 0.0f, 1.0f, 1.0f),
-        TOP_LEFT(0.0f, 0.0f, 0.5f, 0.5f), // x, y, width, height (归一化坐标)
-        TOP_RIGHT(0.5f, 0.0f, 0.5f, 0.5f),
-        BOTTOM_LEFT(0.0f, 0.5f, 0.5f, 0.5f),
-        BOTTOM_RIGHT(0.5f, 0.5f, 0.5f, 0.5f);
-
-        final float x, y, width, height;
-
-        CameraPosition(float x, float y, float width, float height) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-        }
-    }
+    // 多源模式：每个摄像头一个独立文件，按SOURCE_POSITIONS顺序合成
+    static final CameraPosition[] SOURCE_POSITIONS = {
+            CameraPosition.TOP_LEFT, CameraPosition.TOP_RIGHT,
+            CameraPosition.BOTTOM_LEFT, CameraPosition.BOTTOM_RIGHT
+    };
+    private String[] sourcePaths;
+    private SourceDecoder[] sourceDecoders;
+    private StreamSyncController streamSync;
+
+    // 直播模式
+    private static final int DEFAULT_LIVE_TARGET_DELAY_MS = 100;
+    private static final int DEFAULT_LIVE_MAX_DELAY_MS = 300;
+    private String liveUrl;
+    private int liveTargetDelayMs;
+    private int liveMaxDelayMs;
+    private LiveSourcePlayer livePlayer;
 
     private CameraPosition currentPosition = CameraPosition.ALL;
-    private float watermarkHeight = 0.1f; // 水印高度占比
+    private float watermarkHeight = RenderRegions.DEFAULT_WATERMARK_HEIGHT; // 水印高度占比
+    private final RenderRegions regions = new RenderRegions();
+
+    // 单摄像头画面内的缩放/平移，手势只更新预分配的状态
+    private final ZoomState zoom = new ZoomState();
+    private final float[] zoomedRegion = new float[4];
+    private final float[] zoomFocus = new float[2];
+    private static final float[] FULL_REGION = {0.0f, 0.0f, 1.0f, 1.0f};
+    private boolean zoomEnabled = true;
+    private ScaleGestureDetector scaleDetector;
+    private GestureDetector gestureDetector;
 
     public interface OnVideoStateListener {
         void onVideoLoaded();
@@ -55,6 +91,43 @@ public class GLCameraVideoView extends GLSurfaceView {
 
     private OnVideoStateListener videoStateListener;
 
+    public interface OnLiveStatsListener {
+        /**
+         * Reported about once per second from the live decoder thread. Latency is measured
+         * on this device only, from demuxed access unit to decoder output release; capture,
+         * encoding and network transit on the sender side are not included
+         */
+        void onLiveStats(long receiveToRenderMs, long averageReceiveToRenderMs, int bufferedFrames,
+                         long droppedFrames);
+    }
+
+    private OnLiveStatsListener liveStatsListener;
+
+    public interface OnRenderLevelChangeListener {
+        void onRenderLevelChanged(RenderLevel level, RenderGovernor.Reason reason);
+    }
+
+    private OnRenderLevelChangeListener renderLevelListener;
+
+    // 温控/供电降级
+    private static final long GOVERNOR_TICK_MS = 1000;
+    private final RenderGovernor governor = new RenderGovernor();
+    // 暂停时没有帧耗时输入，定时评估使滞回计时照常推进
+    private final Runnable governorTick = new Runnable() {
+        @Override
+        public void run() {
+            governor.evaluate(System.nanoTime());
+            postDelayed(this, GOVERNOR_TICK_MS);
+        }
+    };
+    private RenderLevel renderLevel = RenderLevel.FULL;
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+    private BroadcastReceiver batteryReceiver;
+
+    // 渲染循环轨迹录制，离线回放见 benchmark 模块 FrameTraceReplay
+    private static final int DEFAULT_TRACE_CAPACITY = 200_000;
+    private volatile FrameTrace frameTrace;
+
     public GLCameraVideoView(Context context) {
         super(context);
         init(context);
@@ -67,22 +140,48 @@ public class GLCameraVideoView extends GLSurfaceView {
 
     private void init(Context context) {
         setEGLContextClientVersion(2);
+        // 帧输出的ImageReader为RGBA_8888，默认配置无alpha会产生RGBX缓冲区而无法读取
+        setEGLConfigChooser(8, 8, 8, 8, 16, 0);
         renderer = new VideoRenderer(context);
         setRenderer(renderer);
         setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+        governor.setListener((from, to, reason) -> post(() -> applyRenderLevel(to, reason)));
+        scaleDetector = new ScaleGestureDetector(context, scaleListener);
+        gestureDetector = new GestureDetector(context, panListener);
     }
 
     public void setOnVideoStateListener(OnVideoStateListener listener) {
         this.videoStateListener = listener;
     }
 
+    public void setOnLiveStatsListener(OnLiveStatsListener listener) {
+        this.liveStatsListener = listener;
+    }
+
+    public void setOnRenderLevelChangeListener(OnRenderLevelChangeListener listener) {
+        this.renderLevelListener = listener;
+    }
+
+    public RenderLevel getRenderLevel() {
+        return renderLevel;
+    }
+
     public void setVideoUri(Uri uri) {
+        clearVideoSources();
+        clearLiveSource();
         try {
             if (mediaPlayer != null) {
                 mediaPlayer.release();
             }
             mediaPlayer = new MediaPlayer();
-            mediaPlayer.setDataSource(getContext(), uri);
+            // 文件选择器返回的content URI同样经过块缓存，通过提供方的文件描述符读取
+            CachedMediaDataSource cached = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                    ? CachedMediaDataSource.open(getContext(), uri) : null;
+            if (cached != null) {
+                mediaPlayer.setDataSource(cached);
+            } else {
+                mediaPlayer.setDataSource(getContext(), uri);
+            }
             mediaPlayer.setLooping(true);
             mediaPlayer.setOnPreparedListener(mp -> {
                 renderer.setVideoSize(mp.getVideoWidth(), mp.getVideoHeight());
@@ -107,12 +206,19 @@ public class GLCameraVideoView extends GLSurfaceView {
     }
 
     public void setVideoPath(String path) {
+        clearVideoSources();
+        clearLiveSource();
         try {
             if (mediaPlayer != null) {
                 mediaPlayer.release();
             }
             mediaPlayer = new MediaPlayer();
-            mediaPlayer.setDataSource(path);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                // 块缓存+预读，减少SD卡上seek和循环重播时的卡顿
+                mediaPlayer.setDataSource(new CachedMediaDataSource(path));
+            } else {
+                mediaPlayer.setDataSource(path);
+            }
             mediaPlayer.setLooping(true);
 
             mediaPlayer.setOnPreparedListener(mp -> {
@@ -151,29 +257,515 @@ public class GLCameraVideoView extends GLSurfaceView {
         }
     }
 
+    /**
+     * Play up to four per-camera files on a shared clock; paths[i] is shown at SOURCE_POSITIONS[i]
+     */
+    public void setVideoSources(String... paths) {
+        if (paths.length < 1 || paths.length > StreamSyncController.MAX_STREAMS) {
+            if (videoStateListener != null) {
+                videoStateListener.onVideoError("Unsupported source count: " + paths.length);
+            }
+            return;
+        }
+        if (mediaPlayer != null) {
+            mediaPlayer.release();
+            mediaPlayer = null;
+        }
+        clearLiveSource();
+        stopSourceDecoders();
+        streamSync = null;
+        sourcePaths = paths.clone();
+        // 纹理在GL线程创建，EGL上下文重建后也会再次回调以重启解码器
+        renderer.requestSourceTextures(paths.length, () -> post(this::startSourceDecoders));
+    }
+
+    private void startSourceDecoders() {
+        if (sourcePaths == null) {
+            return;
+        }
+        long resumeUs = streamSync != null ? streamSync.getClock().getPositionUs() : 0;
+        stopSourceDecoders();
+        streamSync = new StreamSyncController(new MediaClock(TimeSource.SYSTEM), sourcePaths.length);
+        sourceDecoders = new SourceDecoder[sourcePaths.length];
+        for (int i = 0; i < sourcePaths.length; i++) {
+            sourceDecoders[i] = new SourceDecoder(i, sourcePaths[i],
+                    new Surface(renderer.sourceTextures[i]), streamSync, resumeUs, sourceListener);
+            sourceDecoders[i].start();
+        }
+        Log.d(TAG, "Started " + sourcePaths.length + " synchronized sources at " + resumeUs + "us");
+        if (videoStateListener != null) {
+            videoStateListener.onVideoLoaded();
+        }
+    }
+
+    private void stopSourceDecoders() {
+        if (sourceDecoders != null) {
+            for (SourceDecoder decoder : sourceDecoders) {
+                decoder.stop();
+            }
+            sourceDecoders = null;
+        }
+    }
+
+    private void clearVideoSources() {
+        if (sourcePaths == null) {
+            return;
+        }
+        stopSourceDecoders();
+        streamSync = null;
+        sourcePaths = null;
+        renderer.requestSourceTextures(0, null);
+    }
+
+    /**
+     * Play a live MPEG-TS feed (udp://[group]:port or http://...) with the default jitter buffer
+     */
+    public void setLiveSource(String url) {
+        setLiveSource(url, DEFAULT_LIVE_TARGET_DELAY_MS, DEFAULT_LIVE_MAX_DELAY_MS);
+    }
+
+    /**
+     * Play a live MPEG-TS feed; frames are dropped to the next key frame once more than
+     * maxDelayMs is buffered
+     */
+    public void setLiveSource(String url, int targetDelayMs, int maxDelayMs) {
+        if (mediaPlayer != null) {
+            mediaPlayer.release();
+            mediaPlayer = null;
+        }
+        clearVideoSources();
+        clearLiveSource();
+        liveUrl = url;
+        liveTargetDelayMs = targetDelayMs;
+        liveMaxDelayMs = maxDelayMs;
+        // Surface未就绪时由onSurfaceCreated启动
+        if (renderer.surfaceTexture != null) {
+            startLivePlayer();
+        }
+    }
+
+    private void startLivePlayer() {
+        if (liveUrl == null) {
+            return;
+        }
+        stopLivePlayer();
+        try {
+            livePlayer = new LiveSourcePlayer(getContext(), liveUrl,
+                    new Surface(renderer.surfaceTexture), liveTargetDelayMs, liveMaxDelayMs,
+                    liveListener);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Invalid live source", e);
+            liveUrl = null;
+            if (videoStateListener != null) {
+                videoStateListener.onVideoError(e.getMessage());
+            }
+            return;
+        }
+        livePlayer.start();
+        Log.d(TAG, "Live source started: " + liveUrl);
+        if (videoStateListener != null) {
+            videoStateListener.onVideoLoaded();
+        }
+    }
+
+    private void stopLivePlayer() {
+        if (livePlayer != null) {
+            livePlayer.stop();
+            livePlayer = null;
+        }
+    }
+
+    private void clearLiveSource() {
+        stopLivePlayer();
+        liveUrl = null;
+    }
+
+    private final LiveSourcePlayer.Listener liveListener = new LiveSourcePlayer.Listener() {
+        @Override
+        public void onVideoSize(int width, int height) {
+            queueEvent(() -> renderer.setVideoSize(width, height));
+        }
+
+        @Override
+        public void onLiveStats(long receiveToRenderMs, long averageReceiveToRenderMs,
+                                int bufferedFrames, long droppedFrames) {
+            if (liveStatsListener != null) {
+                liveStatsListener.onLiveStats(receiveToRenderMs, averageReceiveToRenderMs,
+                        bufferedFrames, droppedFrames);
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            if (videoStateListener != null) {
+                videoStateListener.onVideoError("Live: " + error);
+            }
+        }
+    };
+
+    private final SourceDecoder.Listener sourceListener = new SourceDecoder.Listener() {
+        @Override
+        public void onVideoSize(int stream, int width, int height) {
+            if (stream == 0) {
+                queueEvent(() -> renderer.setSourceVideoSize(width, height));
+            }
+        }
+
+        @Override
+        public void onError(int stream, String error) {
+            if (videoStateListener != null) {
+                videoStateListener.onVideoError("Source " + stream + ": " + error);
+            }
+        }
+    };
+
+    /**
+     * Show playback time, camera and watermark text on top of the video
+     */
+    public void setOverlayEnabled(boolean enabled) {
+        renderer.overlayEnabled = enabled;
+        requestRender();
+    }
+
+    /**
+     * Text decoded from the watermark band, shown on the overlay's third line; null clears it
+     */
+    public void setOverlayWatermarkText(String text) {
+        queueEvent(() -> renderer.overlay.setText(OverlayRenderer.SLOT_WATERMARK, text));
+        requestRender();
+    }
+
+    /**
+     * Current media position in milliseconds, -1 when unknown (e.g. live)
+     */
+    private long currentPositionMs() {
+        StreamSyncController sync = streamSync;
+        if (sync != null) {
+            return sync.getClock().getPositionUs() / 1000;
+        }
+        MediaPlayer player = mediaPlayer;
+        if (player != null) {
+            try {
+                return player.getCurrentPosition();
+            } catch (IllegalStateException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
     public void setCameraPosition(CameraPosition position) {
+        if (position != currentPosition) {
+            zoom.reset();
+        }
         this.currentPosition = position;
-        if (position == CameraPosition.ALL) {
-            // 显示完整视频
-            renderer.setCropRegion(0.0f, 0.0f, 1.0f, 1.0f);
+        FrameTrace trace = frameTrace;
+        if (trace != null) {
+            trace.layout(position, watermarkHeight, System.nanoTime());
+        }
+        renderer.sourcePosition = position;
+        queueEvent(() -> renderer.overlay.setText(OverlayRenderer.SLOT_CAMERA, position.name()));
+        regions.update(position, watermarkHeight);
+        if (regions.isDualMode()) {
+            applyZoom();
         } else {
-            // 显示水印 + 选中的摄像头
-            renderer.setDualRegion(
-                    0.0f, 0.0f, 1.0f, watermarkHeight, // 水印区域
-                    position.x, position.y, position.width, position.height // 摄像头区域
-            );
+            float[] crop = regions.getCropRegion();
+            renderer.setCropRegion(crop[0], crop[1], crop[2], crop[3]);
+            renderer.setSourceZoomCrop(0.0f, 0.0f, 1.0f, 1.0f);
         }
         requestRender();
     }
 
+    /**
+     * Enable pinch-zoom / drag-pan inside the selected camera (not in the full view)
+     */
+    public void setZoomEnabled(boolean enabled) {
+        this.zoomEnabled = enabled;
+        if (!enabled && zoom.isZoomed()) {
+            zoom.reset();
+            setCameraPosition(currentPosition);
+        }
+    }
+
+    public float getZoom() {
+        return zoom.getZoom();
+    }
+
+    /**
+     * Unsharp-mask strength applied to the camera image in the same pass, 0 disables
+     */
+    public void setSharpenStrength(float strength) {
+        renderer.sharpenStrength = Math.max(0.0f, strength);
+        requestRender();
+    }
+
+    /**
+     * 水印带保持原样，只对摄像头区域应用缩放窗口
+     */
+    private void applyZoom() {
+        float[] w = regions.getWatermarkRegion(); // 水印区域
+        zoom.apply(regions.getCameraRegion(), zoomedRegion); // 摄像头区域
+        float[] c = zoomedRegion;
+        renderer.setDualRegion(w[0], w[1], w[2], w[3], c[0], c[1], c[2], c[3]);
+        zoom.apply(FULL_REGION, zoomedRegion);
+        renderer.setSourceZoomCrop(zoomedRegion[0], zoomedRegion[1], zoomedRegion[2], zoomedRegion[3]);
+    }
+
+    private boolean isZoomActive() {
+        return zoomEnabled && currentPosition != CameraPosition.ALL;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isZoomActive()) {
+            return super.onTouchEvent(event);
+        }
+        scaleDetector.onTouchEvent(event);
+        gestureDetector.onTouchEvent(event);
+        return true;
+    }
+
+    /**
+     * Map a view point to normalized coordinates inside the displayed camera image
+     */
+    private void toCameraCoordinates(float x, float y, float[] out) {
+        float[] scale = renderer.getCameraQuadScale();
+        float quadWidth = getWidth() * scale[0];
+        float quadHeight = getHeight() * scale[1];
+        float band = renderer.hasWatermarkBand() ? renderer.watermarkDisplayHeight : 0.0f;
+        float cameraTop = (getHeight() - quadHeight) / 2.0f + quadHeight * band;
+        out[0] = (x - (getWidth() - quadWidth) / 2.0f) / Math.max(1.0f, quadWidth);
+        out[1] = (y - cameraTop) / Math.max(1.0f, quadHeight * (1.0f - band));
+    }
+
+    private float cameraWidthPx() {
+        return Math.max(1.0f, getWidth() * renderer.getCameraQuadScale()[0]);
+    }
+
+    private float cameraHeightPx() {
+        float band = renderer.hasWatermarkBand() ? renderer.watermarkDisplayHeight : 0.0f;
+        return Math.max(1.0f, getHeight() * renderer.getCameraQuadScale()[1] * (1.0f - band));
+    }
+
+    private final ScaleGestureDetector.SimpleOnScaleGestureListener scaleListener =
+            new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+                @Override
+                public boolean onScale(ScaleGestureDetector detector) {
+                    toCameraCoordinates(detector.getFocusX(), detector.getFocusY(), zoomFocus);
+                    if (zoom.scaleBy(detector.getScaleFactor(), zoomFocus[0], zoomFocus[1])) {
+                        applyZoom();
+                        requestRender();
+                    }
+                    return true;
+                }
+            };
+
+    private final GestureDetector.SimpleOnGestureListener panListener =
+            new GestureDetector.SimpleOnGestureListener() {
+                @Override
+                public boolean onDown(MotionEvent e) {
+                    return true;
+                }
+
+                @Override
+                public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                    // 手指移动方向与窗口移动方向相反
+                    if (!scaleDetector.isInProgress()
+                            && zoom.panBy(distanceX / cameraWidthPx(), distanceY / cameraHeightPx())) {
+                        applyZoom();
+                        requestRender();
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean onDoubleTap(MotionEvent e) {
+                    if (zoom.isZoomed()) {
+                        zoom.reset();
+                        applyZoom();
+                        requestRender();
+                    }
+                    return true;
+                }
+            };
+
     public void setWatermarkHeightRatio(float ratio) {
         this.watermarkHeight = ratio;
         setCameraPosition(currentPosition);
     }
 
+    /**
+     * Render live camera thumbnails into the given surface (e.g. a TextureView behind the
+     * camera selector buttons), from the same decoded texture as the main view
+     *
+     * @param backgroundColor ARGB color cleared around the thumbnails
+     */
+    public void setThumbnailTarget(SurfaceTexture target, int width, int height, int backgroundColor) {
+        queueEvent(() -> {
+            renderer.thumbnails.setClearColor(Color.red(backgroundColor) / 255.0f,
+                    Color.green(backgroundColor) / 255.0f, Color.blue(backgroundColor) / 255.0f);
+            renderer.thumbnails.setTarget(target, width, height);
+        });
+        requestRender();
+    }
+
+    /**
+     * Stop rendering thumbnails into the target and release it once the GL thread has
+     * detached from it
+     */
+    public void clearThumbnailTarget(SurfaceTexture target) {
+        queueEvent(() -> {
+            renderer.thumbnails.setTarget(null, 0, 0);
+            post(target::release);
+        });
+    }
+
+    /**
+     * Thumbnail rectangles {x, y, width, height} for each CameraPosition in declaration
+     * order, normalized to the thumbnail target with y down
+     */
+    public void setThumbnailRects(float[] rects) {
+        renderer.thumbnails.setTargetRects(rects);
+        requestRender();
+    }
+
+    /**
+     * Tap decoded frames for an analytics consumer: each new video frame is rendered
+     * (scaled on the GPU) into the tap's own ImageReader and handed to the consumer on the
+     * tap's thread. Single-file and live modes only
+     *
+     * @param region     CameraPosition.ALL for the full 4-in-1 frame, otherwise one camera
+     * @param queueDepth frames buffered for a slow consumer before the oldest is dropped
+     */
+    public FrameTap addFrameTap(CameraPosition region, int width, int height, int queueDepth,
+                                FrameTap.Consumer consumer) {
+        FrameTap tap = new FrameTap(region, width, height, queueDepth, consumer);
+        queueEvent(() -> renderer.addFrameTap(tap));
+        return tap;
+    }
+
+    public void removeFrameTap(FrameTap tap) {
+        queueEvent(() -> renderer.removeFrameTap(tap));
+    }
+
+    /**
+     * Start recording frame-available, layout and draw events for offline replay
+     */
+    public void startFrameTrace() {
+        startFrameTrace(DEFAULT_TRACE_CAPACITY);
+    }
+
+    /**
+     * @param capacity events to keep, at most {@link FrameTrace#MAX_CAPACITY}
+     */
+    public void startFrameTrace(int capacity) {
+        float refreshRate = getDisplay() != null ? getDisplay().getRefreshRate() : 60.0f;
+        FrameTrace trace = new FrameTrace(capacity, (long) (1_000_000_000L / refreshRate));
+        trace.layout(currentPosition, watermarkHeight, System.nanoTime());
+        frameTrace = trace;
+    }
+
+    /**
+     * Stop recording and write the trace; does nothing if no trace is being recorded
+     */
+    public void stopFrameTrace(File file) throws IOException {
+        FrameTrace trace = frameTrace;
+        frameTrace = null;
+        if (trace == null) {
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            trace.writeTo(out);
+        }
+        Log.d(TAG, "Frame trace: " + trace.size() + " events"
+                + (trace.isTruncated() ? " (truncated)" : "") + " -> " + file);
+    }
+
+    private void applyRenderLevel(RenderLevel level, RenderGovernor.Reason reason) {
+        Log.d(TAG, "Render level " + renderLevel + " -> " + level + " (" + reason + ")");
+        renderLevel = level;
+        renderer.scheduler.setMinFrameIntervalNanos(level.pacingIntervalNanos());
+        renderer.simpleShading = level.simpleShading;
+        queueEvent(renderer::applyTextureFilter);
+        applyRenderScale();
+        requestRender();
+        if (renderLevelListener != null) {
+            renderLevelListener.onRenderLevelChanged(level, reason);
+        }
+    }
+
+    /**
+     * 降低Surface缓冲区分辨率，由合成器放大到视图尺寸
+     */
+    private void applyRenderScale() {
+        float scale = renderLevel.renderScale;
+        if (scale >= 1.0f || getWidth() == 0 || getHeight() == 0) {
+            getHolder().setSizeFromLayout();
+            return;
+        }
+        getHolder().setFixedSize(Math.max(1, Math.round(getWidth() * scale)),
+                Math.max(1, Math.round(getHeight() * scale)));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (renderLevel.renderScale < 1.0f) {
+            applyRenderScale();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        long now = System.nanoTime();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            PowerManager power = (PowerManager) getContext().getSystemService(Context.POWER_SERVICE);
+            if (power != null) {
+                thermalListener = status -> governor.onThermalStatus(status, System.nanoTime());
+                power.addThermalStatusListener(thermalListener);
+                governor.onThermalStatus(power.getCurrentThermalStatus(), now);
+            }
+        }
+        batteryReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                int plugged = intent.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0);
+                governor.onPowerSource(plugged == 0, System.nanoTime());
+            }
+        };
+        // 粘性广播，注册时立即返回当前供电状态
+        Intent battery = getContext().registerReceiver(batteryReceiver,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery != null) {
+            governor.onPowerSource(battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) == 0, now);
+        }
+        postDelayed(governorTick, GOVERNOR_TICK_MS);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(governorTick);
+        if (thermalListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            PowerManager power = (PowerManager) getContext().getSystemService(Context.POWER_SERVICE);
+            if (power != null) {
+                power.removeThermalStatusListener(thermalListener);
+            }
+            thermalListener = null;
+        }
+        if (batteryReceiver != null) {
+            getContext().unregisterReceiver(batteryReceiver);
+            batteryReceiver = null;
+        }
+        super.onDetachedFromWindow();
+    }
+
     @Override
     public void onResume() {
         super.onResume();
+        if (streamSync != null) {
+            streamSync.getClock().resume();
+        }
         if (mediaPlayer != null && !mediaPlayer.isPlaying()) {
             Log.d(TAG, "Resuming video playback");
             mediaPlayer.start();
@@ -181,10 +773,19 @@ public class GLCameraVideoView extends GLSurfaceView {
     }
 
     public boolean isPlaying() {
+        if (livePlayer != null) {
+            return true;
+        }
+        if (streamSync != null) {
+            return streamSync.getClock().isRunning();
+        }
         return mediaPlayer != null && mediaPlayer.isPlaying();
     }
 
     public void startPlayback() {
+        if (streamSync != null) {
+            streamSync.getClock().resume();
+        }
         if (mediaPlayer != null && !mediaPlayer.isPlaying()) {
             Log.d(TAG, "Starting playback");
             mediaPlayer.start();
@@ -192,6 +793,9 @@ public class GLCameraVideoView extends GLSurfaceView {
     }
 
     public void pausePlayback() {
+        if (streamSync != null) {
+            streamSync.getClock().pause();
+        }
         if (mediaPlayer != null && mediaPlayer.isPlaying()) {
             Log.d(TAG, "Pausing playback");
             mediaPlayer.pause();
@@ -201,12 +805,20 @@ public class GLCameraVideoView extends GLSurfaceView {
     @Override
     public void onPause() {
         super.onPause();
+        // 直播无法暂停，恢复时随Surface重建重新连接
+        stopLivePlayer();
+        if (streamSync != null) {
+            streamSync.getClock().pause();
+        }
         if (mediaPlayer != null && mediaPlayer.isPlaying()) {
             mediaPlayer.pause();
         }
     }
 
     public void release() {
+        clearVideoSources();
+        clearLiveSource();
+        queueEvent(renderer::releaseFrameTaps);
         if (mediaPlayer != null) {
             mediaPlayer.release();
             mediaPlayer = null;
@@ -230,15 +842,32 @@ public class GLCameraVideoView extends GLSurfaceView {
                 "  vTextureCoord = aTextureCoord.xy;\n" +
                 "}\n";
 
+        // 反锐化掩模：原色加上与四邻域均值之差，在同一个片元pass内完成
+        private static final String SHARPEN_FUNCTION =
+                "uniform float uSharpen;\n" + // 锐化强度，0为关闭
+                "uniform vec2 uTexelSize;\n" +
+                "vec4 sampleSharpened(vec2 texCoord) {\n" +
+                "  vec4 color = texture2D(sTexture, texCoord);\n" +
+                "  if (uSharpen > 0.0) {\n" +
+                "    vec4 blur = (texture2D(sTexture, texCoord + vec2(uTexelSize.x, 0.0)) +\n" +
+                "        texture2D(sTexture, texCoord - vec2(uTexelSize.x, 0.0)) +\n" +
+                "        texture2D(sTexture, texCoord + vec2(0.0, uTexelSize.y)) +\n" +
+                "        texture2D(sTexture, texCoord - vec2(0.0, uTexelSize.y))) * 0.25;\n" +
+                "    color = clamp(color + (color - blur) * uSharpen, 0.0, 1.0);\n" +
+                "  }\n" +
+                "  return color;\n" +
+                "}\n";
+
         private static final String FRAGMENT_SHADER =
                 "#extension GL_OES_EGL_image_external : require\n" +
                 "precision mediump float;\n" +
                 "varying vec2 vTextureCoord;\n" +
                 "uniform samplerExternalOES sTexture;\n" +
                 "uniform vec4 uCropRegion;\n" + // x, y, width, height
+                SHARPEN_FUNCTION +
                 "void main() {\n" +
                 "  vec2 texCoord = uCropRegion.xy + vTextureCoord * uCropRegion.zw;\n" +
-                "  gl_FragColor = texture2D(sTexture, texCoord);\n" +
+                "  gl_FragColor = sampleSharpened(texCoord);\n" +
                 "}\n";
 
         private static final String DUAL_FRAGMENT_SHADER =
@@ -249,18 +878,19 @@ public class GLCameraVideoView extends GLSurfaceView {
                 "uniform vec4 uWatermarkRegion;\n" + // 水印区域
                 "uniform vec4 uCameraRegion;\n" + // 摄像头区域
                 "uniform float uWatermarkHeight;\n" + // 水印显示高度占比
+                SHARPEN_FUNCTION +
                 "void main() {\n" +
-                "  vec2 texCoord;\n" +
                 "  if (vTextureCoord.y < uWatermarkHeight) {\n" +
-                "    // 水印区域\n" +
+                "    // 水印区域：不缩放、不锐化\n" +
                 "    float normalizedY = vTextureCoord.y / uWatermarkHeight;\n" +
-                "    texCoord = uWatermarkRegion.xy + vec2(vTextureCoord.x, normalizedY) * uWatermarkRegion.zw;\n" +
+                "    gl_FragColor = texture2D(sTexture,\n" +
+                "        uWatermarkRegion.xy + vec2(vTextureCoord.x, normalizedY) * uWatermarkRegion.zw);\n" +
                 "  } else {\n" +
-                "    // 摄像头区域\n" +
+                "    // 摄像头区域（uCameraRegion已包含缩放/平移）\n" +
                 "    float normalizedY = (vTextureCoord.y - uWatermarkHeight) / (1.0 - uWatermarkHeight);\n" +
-                "    texCoord = uCameraRegion.xy + vec2(vTextureCoord.x, normalizedY) * uCameraRegion.zw;\n" +
+                "    gl_FragColor = sampleSharpened(\n" +
+                "        uCameraRegion.xy + vec2(vTextureCoord.x, normalizedY) * uCameraRegion.zw);\n" +
                 "  }\n" +
-                "  gl_FragColor = texture2D(sTexture, texCoord);\n" +
                 "}\n";
 
         private final float[] VERTEX_COORDS = {
@@ -270,14 +900,9 @@ public class GLCameraVideoView extends GLSurfaceView {
                 1.0f, 1.0f, // 右上
         };
 
-        // 添加小的边距避免边缘采样问题
-        private static final float TEX_MARGIN = 0.001f;
-        private final float[] TEXTURE_COORDS = {
-                TEX_MARGIN, 1.0f - TEX_MARGIN, // 左下
-                1.0f - TEX_MARGIN, 1.0f - TEX_MARGIN, // 右下
-                TEX_MARGIN, TEX_MARGIN, // 左上
-                1.0f - TEX_MARGIN, TEX_MARGIN, // 右上
-        };
+        private final float[] TEXTURE_COORDS = new float[VideoLayout.QUAD_FLOATS];
+        private final float[] letterboxScale = {1.0f, 1.0f};
+        private final float[] adjustedVertexCoords = new float[VideoLayout.QUAD_FLOATS];
 
         private FloatBuffer vertexBuffer;
         private FloatBuffer textureBuffer;
@@ -290,6 +915,8 @@ public class GLCameraVideoView extends GLSurfaceView {
         private int aTextureCoordHandle;
         private int uTextureHandle;
         private int uCropRegionHandle;
+        private int uSharpenHandle;
+        private int uTexelSizeHandle;
 
         // 双区域模式的handles
         private int dualAPositionHandle;
@@ -298,6 +925,8 @@ public class GLCameraVideoView extends GLSurfaceView {
         private int uWatermarkRegionHandle;
         private int uCameraRegionHandle;
         private int uWatermarkHeightHandle;
+        private int dualUSharpenHandle;
+        private int dualUTexelSizeHandle;
 
         SurfaceTexture surfaceTexture; // 包级访问，允许外部类访问
         private boolean updateSurface = false;
@@ -306,7 +935,48 @@ public class GLCameraVideoView extends GLSurfaceView {
         private float[] cropRegion = {0.0f, 0.0f, 1.0f, 1.0f};
         private float[] watermarkRegion = {0.0f, 0.0f, 1.0f, 0.1f};
         private float[] cameraRegion = {0.0f, 0.1f, 0.5f, 0.45f};
-        private float watermarkDisplayHeight = 0.15f;
+        volatile float watermarkDisplayHeight = 0.15f;
+
+        // 多源模式的纹理，按SOURCE_POSITIONS顺序
+        private int sourceCount = 0;
+        private boolean sourceTexturesCreated = false;
+        private Runnable onSourcesReady;
+        private final int[] sourceTextureIds = new int[StreamSyncController.MAX_STREAMS];
+        final SurfaceTexture[] sourceTextures = new SurfaceTexture[StreamSyncController.MAX_STREAMS];
+        private final boolean[] sourceUpdated = new boolean[StreamSyncController.MAX_STREAMS];
+        volatile CameraPosition sourcePosition = CameraPosition.ALL;
+        private int sourceVideoWidth;
+        private int sourceVideoHeight;
+        private final float[] sourceCrop = {0.0f, 0.0f, 1.0f, 1.0f};
+        private final float[] sourceZoomCrop = {0.0f, 0.0f, 1.0f, 1.0f};
+        private final float[] sourceScale = new float[2];
+        private final float[] regionVertexCoords = new float[VideoLayout.QUAD_FLOATS];
+        private final FloatBuffer regionVertexBuffer;
+        private boolean surfaceReady = false;
+
+        // 文字叠加层
+        private static final long OVERLAY_TIME_INTERVAL_NANOS = 100_000_000L;
+        final OverlayRenderer overlay = new OverlayRenderer();
+        volatile boolean overlayEnabled = false;
+        private long nextOverlayTimeNanos = 0;
+
+        // 摄像头选择按钮上的实时缩略图
+        final ThumbnailRenderer thumbnails = new ThumbnailRenderer();
+
+        // 分析用帧输出，仅GL线程访问
+        private FrameTap[] frameTaps = new FrameTap[0];
+        private boolean tapFramePending = false;
+        private final FloatBuffer fullQuadBuffer;
+
+        // 渲染降级：帧率上限和简化着色
+        final FrameScheduler scheduler = new FrameScheduler(RenderLevel.FULL.pacingIntervalNanos());
+        volatile boolean simpleShading = false;
+        volatile float sharpenStrength = 0.0f;
+        private final Runnable latchFrames = this::latchFrames;
+        private final Runnable deferredDraw = () -> {
+            scheduler.onDeferredDraw();
+            requestRender();
+        };
 
         private final Context context;
         private int videoWidth;
@@ -316,6 +986,7 @@ public class GLCameraVideoView extends GLSurfaceView {
 
         public VideoRenderer(Context context) {
             this.context = context;
+            VideoLayout.fillTextureCoords(VideoLayout.TEX_MARGIN, TEXTURE_COORDS);
             vertexBuffer = ByteBuffer.allocateDirect(VERTEX_COORDS.length * 4)
                     .order(ByteOrder.nativeOrder())
                     .asFloatBuffer()
@@ -327,6 +998,16 @@ public class GLCameraVideoView extends GLSurfaceView {
                     .asFloatBuffer()
                     .put(TEXTURE_COORDS);
             textureBuffer.position(0);
+
+            regionVertexBuffer = ByteBuffer.allocateDirect(VideoLayout.QUAD_FLOATS * 4)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+
+            fullQuadBuffer = ByteBuffer.allocateDirect(VERTEX_COORDS.length * 4)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer()
+                    .put(VERTEX_COORDS);
+            fullQuadBuffer.position(0);
         }
 
         @Override
@@ -334,20 +1015,24 @@ public class GLCameraVideoView extends GLSurfaceView {
             GLES20.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
 
             // 创建单区域程序
-            program = createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+            program = ShaderUtils.createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
             aPositionHandle = GLES20.glGetAttribLocation(program, "aPosition");
             aTextureCoordHandle = GLES20.glGetAttribLocation(program, "aTextureCoord");
             uTextureHandle = GLES20.glGetUniformLocation(program, "sTexture");
             uCropRegionHandle = GLES20.glGetUniformLocation(program, "uCropRegion");
+            uSharpenHandle = GLES20.glGetUniformLocation(program, "uSharpen");
+            uTexelSizeHandle = GLES20.glGetUniformLocation(program, "uTexelSize");
 
             // 创建双区域程序
-            dualProgram = createProgram(VERTEX_SHADER, DUAL_FRAGMENT_SHADER);
+            dualProgram = ShaderUtils.createProgram(VERTEX_SHADER, DUAL_FRAGMENT_SHADER);
             dualAPositionHandle = GLES20.glGetAttribLocation(dualProgram, "aPosition");
             dualATextureCoordHandle = GLES20.glGetAttribLocation(dualProgram, "aTextureCoord");
             dualUTextureHandle = GLES20.glGetUniformLocation(dualProgram, "sTexture");
             uWatermarkRegionHandle = GLES20.glGetUniformLocation(dualProgram, "uWatermarkRegion");
             uCameraRegionHandle = GLES20.glGetUniformLocation(dualProgram, "uCameraRegion");
             uWatermarkHeightHandle = GLES20.glGetUniformLocation(dualProgram, "uWatermarkHeight");
+            dualUSharpenHandle = GLES20.glGetUniformLocation(dualProgram, "uSharpen");
+            dualUTexelSizeHandle = GLES20.glGetUniformLocation(dualProgram, "uTexelSize");
 
             // 创建纹理
             textureId = createTexture();
@@ -360,6 +1045,28 @@ public class GLCameraVideoView extends GLSurfaceView {
             if (mediaPlayer != null) {
                 mediaPlayer.setSurface(new Surface(surfaceTexture));
             }
+            if (liveUrl != null) {
+                post(GLCameraVideoView.this::startLivePlayer);
+            }
+
+            // 上下文重建后旧纹理已失效，重新创建多源纹理
+            overlay.onSurfaceCreated();
+            thumbnails.onSurfaceCreated();
+            for (FrameTap tap : frameTaps) {
+                tap.onSurfaceCreated();
+            }
+
+            surfaceReady = true;
+            for (int i = 0; i < StreamSyncController.MAX_STREAMS; i++) {
+                if (sourceTextures[i] != null) {
+                    sourceTextures[i].release();
+                    sourceTextures[i] = null;
+                }
+            }
+            sourceTexturesCreated = false;
+            if (sourceCount > 0) {
+                createSourceTextures();
+            }
         }
 
         @Override
@@ -368,39 +1075,206 @@ public class GLCameraVideoView extends GLSurfaceView {
             surfaceWidth = width;
             surfaceHeight = height;
             updateVertexCoordinates();
+            overlay.onSurfaceChanged(width, height);
         }
 
         @Override
         public void onDrawFrame(GL10 gl) {
+            long start = System.nanoTime();
+            scheduler.onDrawStarted(start);
+            latchFrames();
+
+            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+            drawScene();
+
+            if (overlayEnabled && !simpleShading) {
+                drawOverlay();
+            }
+
+            // 缩略图只在单一解码纹理模式下绘制，最低渲染等级下暂停
+            if (!sourceTexturesCreated && !simpleShading && videoWidth > 0
+                    && thumbnails.draw(textureId)) {
+                GLES20.glViewport(0, 0, surfaceWidth, surfaceHeight);
+            }
+            if (tapFramePending) {
+                tapFramePending = false;
+                if (!sourceTexturesCreated && videoWidth > 0 && frameTaps.length > 0) {
+                    drawFrameTaps();
+                }
+            }
+
+            // 只统计CPU提交耗时，不调用glFinish以免阻塞流水线
+            long end = System.nanoTime();
+            governor.onFrameCost(end - start, end);
+            FrameTrace trace = frameTrace;
+            if (trace != null) {
+                trace.draw(start, end - start);
+            }
+        }
+
+        private void drawScene() {
+            if (sourceTexturesCreated) {
+                drawSources();
+            } else if (isDualMode) {
+                drawDualMode();
+            } else {
+                drawSingleMode();
+            }
+        }
+
+        /**
+         * Latch every pending decoder frame into its texture; GL thread only
+         */
+        private void latchFrames() {
             synchronized (this) {
                 if (updateSurface) {
                     surfaceTexture.updateTexImage();
                     updateSurface = false;
+                    thumbnails.onFrameLatched();
+                    tapFramePending = true;
+                }
+                if (!sourceTexturesCreated) {
+                    return;
+                }
+                for (int i = 0; i < sourceCount; i++) {
+                    if (sourceUpdated[i]) {
+                        sourceTextures[i].updateTexImage();
+                        sourceUpdated[i] = false;
+                    }
                 }
             }
+        }
 
-            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+        /**
+         * Draw now, or when over the frame rate cap latch the frame without drawing and
+         * schedule one draw at the end of the interval
+         */
+        private void onFrameQueued(int stream) {
+            long now = System.nanoTime();
+            FrameTrace trace = frameTrace;
+            if (trace != null) {
+                trace.frameAvailable(stream, now);
+            }
+            long waitNanos = scheduler.onFrameAvailable(now);
+            if (waitNanos == FrameScheduler.DRAW_NOW) {
+                requestRender();
+                return;
+            }
+            // 超过帧率上限：仍然消费缓冲区，避免解码器因BufferQueue占满而阻塞
+            queueEvent(latchFrames);
+            if (waitNanos != FrameScheduler.ALREADY_SCHEDULED) {
+                postDelayed(deferredDraw, waitNanos / 1_000_000 + 1);
+            }
+        }
 
-            if (isDualMode) {
-                drawDualMode();
-            } else {
-                drawSingleMode();
+        /**
+         * Switch video textures between linear and nearest sampling; GL thread only
+         */
+        void applyTextureFilter() {
+            if (textureId != 0) {
+                setTextureFilter(textureId);
+            }
+            if (sourceTexturesCreated) {
+                for (int i = 0; i < sourceCount; i++) {
+                    setTextureFilter(sourceTextureIds[i]);
+                }
+            }
+        }
+
+        private void setTextureFilter(int texture) {
+            int filter = simpleShading ? GLES20.GL_NEAREST : GLES20.GL_LINEAR;
+            GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, texture);
+            GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
+                    GLES20.GL_TEXTURE_MIN_FILTER, filter);
+            GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
+                    GLES20.GL_TEXTURE_MAG_FILTER, filter);
+        }
+
+        /**
+         * Render the new frame into every tap whose consumer has buffers to spare
+         */
+        private void drawFrameTaps() {
+            long timestamp = surfaceTexture.getTimestamp();
+            for (FrameTap tap : frameTaps) {
+                if (!tap.beginFrame()) {
+                    continue;
+                }
+                GLES20.glViewport(0, 0, tap.getWidth(), tap.getHeight());
+                drawTexture(textureId, fullQuadBuffer, tap.crop, 0.0f, videoWidth, videoHeight);
+                tap.submitFrame(timestamp);
+            }
+            GLES20.glViewport(0, 0, surfaceWidth, surfaceHeight);
+        }
+
+        void addFrameTap(FrameTap tap) {
+            tap.onSurfaceCreated();
+            FrameTap[] taps = new FrameTap[frameTaps.length + 1];
+            System.arraycopy(frameTaps, 0, taps, 0, frameTaps.length);
+            taps[frameTaps.length] = tap;
+            frameTaps = taps;
+        }
+
+        void removeFrameTap(FrameTap tap) {
+            int index = -1;
+            for (int i = 0; i < frameTaps.length; i++) {
+                if (frameTaps[i] == tap) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            tap.release();
+            FrameTap[] taps = new FrameTap[frameTaps.length - 1];
+            System.arraycopy(frameTaps, 0, taps, 0, index);
+            System.arraycopy(frameTaps, index + 1, taps, index, taps.length - index);
+            frameTaps = taps;
+        }
+
+        void releaseFrameTaps() {
+            for (FrameTap tap : frameTaps) {
+                tap.release();
             }
+            frameTaps = new FrameTap[0];
+        }
+
+        private void drawOverlay() {
+            // 播放位置查询涉及跨进程调用，限制为每100ms一次
+            long now = System.nanoTime();
+            if (now >= nextOverlayTimeNanos) {
+                nextOverlayTimeNanos = now + OVERLAY_TIME_INTERVAL_NANOS;
+                overlay.setTimeMs(currentPositionMs());
+            }
+            overlay.draw();
         }
 
         private void drawSingleMode() {
+            drawTexture(textureId, vertexBuffer, cropRegion, effectiveSharpen(),
+                    videoWidth, videoHeight);
+        }
+
+        private float effectiveSharpen() {
+            // 最低渲染等级下关闭锐化，减少4次额外采样
+            return simpleShading ? 0.0f : sharpenStrength;
+        }
+
+        private void drawTexture(int texture, FloatBuffer vertices, float[] crop, float sharpen,
+                                 int textureWidth, int textureHeight) {
             GLES20.glUseProgram(program);
 
             GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-            GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, textureId);
+            GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, texture);
             GLES20.glUniform1i(uTextureHandle, 0);
 
-            GLES20.glUniform4f(uCropRegionHandle,
-                    cropRegion[0], cropRegion[1], cropRegion[2], cropRegion[3]);
+            GLES20.glUniform4f(uCropRegionHandle, crop[0], crop[1], crop[2], crop[3]);
+            GLES20.glUniform1f(uSharpenHandle, textureWidth > 0 && textureHeight > 0 ? sharpen : 0.0f);
+            GLES20.glUniform2f(uTexelSizeHandle, 1.0f / Math.max(1, textureWidth),
+                    1.0f / Math.max(1, textureHeight));
 
             GLES20.glEnableVertexAttribArray(aPositionHandle);
             GLES20.glVertexAttribPointer(aPositionHandle, 2, GLES20.GL_FLOAT,
-                    false, 0, vertexBuffer);
+                    false, 0, vertices);
 
             GLES20.glEnableVertexAttribArray(aTextureCoordHandle);
             GLES20.glVertexAttribPointer(aTextureCoordHandle, 2,
@@ -424,6 +1298,9 @@ public class GLCameraVideoView extends GLSurfaceView {
             GLES20.glUniform4f(uCameraRegionHandle,
                     cameraRegion[0], cameraRegion[1], cameraRegion[2], cameraRegion[3]);
             GLES20.glUniform1f(uWatermarkHeightHandle, watermarkDisplayHeight);
+            GLES20.glUniform1f(dualUSharpenHandle, videoWidth > 0 ? effectiveSharpen() : 0.0f);
+            GLES20.glUniform2f(dualUTexelSizeHandle, 1.0f / Math.max(1, videoWidth),
+                    1.0f / Math.max(1, videoHeight));
 
             GLES20.glEnableVertexAttribArray(dualAPositionHandle);
             GLES20.glVertexAttribPointer(dualAPositionHandle, 2,
@@ -439,12 +1316,93 @@ public class GLCameraVideoView extends GLSurfaceView {
             GLES20.glDisableVertexAttribArray(dualATextureCoordHandle);
         }
 
+        private void drawSources() {
+            CameraPosition position = sourcePosition;
+            boolean mosaic = position == CameraPosition.ALL;
+            // 全视图按2x2拼接，单摄像头只显示对应源
+            int compositeWidth = mosaic ? sourceVideoWidth * 2 : sourceVideoWidth;
+            int compositeHeight = mosaic ? sourceVideoHeight * 2 : sourceVideoHeight;
+            if (!VideoLayout.computeLetterboxScale(compositeWidth, compositeHeight,
+                    surfaceWidth, surfaceHeight, sourceScale)) {
+                return;
+            }
+
+            for (int i = 0; i < sourceCount; i++) {
+                CameraPosition region = SOURCE_POSITIONS[i];
+                if (mosaic) {
+                    VideoLayout.fillRegionVertexCoords(sourceScale[0], sourceScale[1],
+                            region.x, region.y, region.width, region.height, regionVertexCoords);
+                } else if (region == position) {
+                    VideoLayout.fillVertexCoords(sourceScale[0], sourceScale[1],
+                            regionVertexCoords);
+                } else {
+                    continue;
+                }
+                regionVertexBuffer.clear();
+                regionVertexBuffer.put(regionVertexCoords);
+                regionVertexBuffer.position(0);
+                drawTexture(sourceTextureIds[i], regionVertexBuffer, mosaic ? sourceCrop : sourceZoomCrop,
+                        effectiveSharpen(), sourceVideoWidth, sourceVideoHeight);
+            }
+        }
+
+        /**
+         * Create (count > 0) or release (count == 0) the per-source textures on the GL thread
+         */
+        void requestSourceTextures(int count, Runnable onReady) {
+            queueEvent(() -> {
+                releaseSourceTextures();
+                sourceCount = count;
+                onSourcesReady = onReady;
+                if (surfaceReady && count > 0) {
+                    createSourceTextures();
+                }
+            });
+        }
+
+        void setSourceVideoSize(int width, int height) {
+            Log.d(TAG, "Source video size: " + width + "x" + height);
+            sourceVideoWidth = width;
+            sourceVideoHeight = height;
+        }
+
+        private void createSourceTextures() {
+            for (int i = 0; i < sourceCount; i++) {
+                final int index = i;
+                sourceTextureIds[i] = createTexture();
+                sourceTextures[i] = new SurfaceTexture(sourceTextureIds[i]);
+                sourceTextures[i].setOnFrameAvailableListener(st -> {
+                    synchronized (this) {
+                        sourceUpdated[index] = true;
+                    }
+                    onFrameQueued(index);
+                });
+            }
+            sourceTexturesCreated = true;
+            if (onSourcesReady != null) {
+                onSourcesReady.run();
+            }
+        }
+
+        private void releaseSourceTextures() {
+            if (!sourceTexturesCreated) {
+                return;
+            }
+            for (int i = 0; i < sourceCount; i++) {
+                sourceTextures[i].release();
+                sourceTextures[i] = null;
+                sourceUpdated[i] = false;
+            }
+            GLES20.glDeleteTextures(sourceCount, sourceTextureIds, 0);
+            sourceTexturesCreated = false;
+        }
+
         @Override
         public void onFrameAvailable(SurfaceTexture surfaceTexture) {
             synchronized (this) {
                 updateSurface = true;
             }
-            requestRender();
+            onFrameQueued(0);
         }
 
         public void setCropRegion(float x, float y, float width, float height) {
@@ -469,6 +1427,27 @@ public class GLCameraVideoView extends GLSurfaceView {
             cameraRegion[3] = ch;
         }
 
+        /**
+         * Zoomed texture region of the selected source in multi-source single-camera mode
+         */
+        void setSourceZoomCrop(float x, float y, float width, float height) {
+            sourceZoomCrop[0] = x;
+            sourceZoomCrop[1] = y;
+            sourceZoomCrop[2] = width;
+            sourceZoomCrop[3] = height;
+        }
+
+        /**
+         * Letterbox scale of the quad that shows the selected camera
+         */
+        float[] getCameraQuadScale() {
+            return sourceTexturesCreated ? sourceScale : letterboxScale;
+        }
+
+        boolean hasWatermarkBand() {
+            return !sourceTexturesCreated && isDualMode;
+        }
+
         public void setVideoSize(int width, int height) {
             Log.d(TAG, "Video size: " + width + "x" + height);
             videoWidth = width;
@@ -477,12 +1456,12 @@ public class GLCameraVideoView extends GLSurfaceView {
         }
 
         private void updateVertexCoordinates() {
-            if (videoWidth == 0 || videoHeight == 0 || surfaceWidth == 0 || surfaceHeight == 0) {
+            if (!VideoLayout.computeLetterboxScale(videoWidth, videoHeight,
+                    surfaceWidth, surfaceHeight, letterboxScale)) {
                 return;
             }
-
-            float videoAspect = (float) videoWidth / videoHeight;
-            float surfaceAspect = (float) surfaceWidth / surfaceHeight;
+            float scaleX = letterboxScale[0];
+            float scaleY = letterboxScale[1];
 
             // 重置纹理坐标为默认值，保持完整视频内容
             textureBuffer.clear();
@@ -490,61 +1469,23 @@ public class GLCameraVideoView extends GLSurfaceView {
             textureBuffer.position(0);
 
             // 通过调整顶点坐标来适配宽高比（letterbox方式，不裁剪内容）
-            float scaleX = 1.0f;
-            float scaleY = 1.0f;
-
-            if (surfaceAspect > videoAspect) {
-                // Surface更宽，视频在水平方向缩小，上下填充黑边
-                scaleX = videoAspect / surfaceAspect;
-            } else {
-                // Surface更高，视频在垂直方向缩小，左右填充黑边
-                scaleY = surfaceAspect / videoAspect;
-            }
-
-            float[] adjustedVertexCoords = {
-                    -scaleX, -scaleY, // 左下
-                    scaleX, -scaleY,  // 右下
-                    -scaleX, scaleY,  // 左上
-                    scaleX, scaleY,   // 右上
-            };
+            VideoLayout.fillVertexCoords(scaleX, scaleY, adjustedVertexCoords);
 
             vertexBuffer.clear();
             vertexBuffer.put(adjustedVertexCoords);
             vertexBuffer.position(0);
 
-            Log.d(TAG, "Updated vertex coords - videoAspect: " + videoAspect +
-                  ", surfaceAspect: " + surfaceAspect +
+            Log.d(TAG, "Updated vertex coords - video: " + videoWidth + "x" + videoHeight +
+                  ", surface: " + surfaceWidth + "x" + surfaceHeight +
                   ", scaleX: " + scaleX + ", scaleY: " + scaleY);
         }
 
-        private int createProgram(String vertexSource, String fragmentSource) {
-            int vertexShader = loadShader(GLES20.GL_VERTEX_SHADER, vertexSource);
-            int fragmentShader = loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
-
-            int program = GLES20.glCreateProgram();
-            GLES20.glAttachShader(program, vertexShader);
-            GLES20.glAttachShader(program, fragmentShader);
-            GLES20.glLinkProgram(program);
-
-            return program;
-        }
-
-        private int loadShader(int type, String shaderCode) {
-            int shader = GLES20.glCreateShader(type);
-            GLES20.glShaderSource(shader, shaderCode);
-            GLES20.glCompileShader(shader);
-            return shader;
-        }
-
         private int createTexture() {
             int[] textures = new int[1];
             GLES20.glGenTextures(1, textures, 0);
 
             GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, textures[0]);
-            GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
-                    GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
-            GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
-                    GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+            setTextureFilter(textures[0]);
             GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
                     GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
             GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES,
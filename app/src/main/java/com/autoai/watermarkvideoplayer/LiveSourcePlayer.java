@@ -0,0 +1,209 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.content.Context;
+import android.media.MediaCodec;
+import android.media.MediaFormat;
+import android.net.wifi.WifiManager;
+import android.util.Log;
+import android.view.Surface;
+
+import com.autoai.watermarkvideoplayer.core.JitterBuffer;
+import com.autoai.watermarkvideoplayer.core.LatencyTracker;
+import com.autoai.watermarkvideoplayer.core.LiveTsReceiver;
+import com.autoai.watermarkvideoplayer.core.TsDemuxer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Low-latency live MPEG-TS playback: receiver -> demuxer -> jitter buffer -> MediaCodec.
+ * <p>
+ * 解码输出立即渲染，延迟由抖动缓冲的目标延迟和追赶丢帧控制。
+ * 统计的是本机接收到上屏的延迟（解复用出access unit到释放解码输出），
+ * 不含发送端采集、编码和网络传输，TS流中没有可与本机时钟比较的发送时间。
+ */
+class LiveSourcePlayer implements TsDemuxer.Listener, LiveTsReceiver.Listener, Runnable {
+    private static final String TAG = "LiveSourcePlayer";
+    private static final int JITTER_CAPACITY = 120;
+    private static final long DEQUEUE_TIMEOUT_US = 5_000;
+    private static final long STATS_INTERVAL_NANOS = 1_000_000_000L;
+    // 实际尺寸以解码器输出格式为准
+    private static final int DEFAULT_WIDTH = 1920;
+    private static final int DEFAULT_HEIGHT = 1080;
+
+    interface Listener {
+        void onVideoSize(int width, int height);
+        void onLiveStats(long receiveToRenderMs, long averageReceiveToRenderMs, int bufferedFrames,
+                         long droppedFrames);
+        void onError(String error);
+    }
+
+    private final Surface surface;
+    private final Listener listener;
+    private final TsDemuxer demuxer = new TsDemuxer(this);
+    private final LiveTsReceiver receiver;
+    private final JitterBuffer jitterBuffer;
+    private final LatencyTracker receiveToRender = new LatencyTracker();
+    private final MediaCodec.BufferInfo bufferInfo = new MediaCodec.BufferInfo();
+    private final WifiManager.MulticastLock multicastLock;
+
+    private volatile boolean running = true;
+    private volatile String mime;
+    private Thread receiverThread;
+    private Thread decoderThread;
+
+    LiveSourcePlayer(Context context, String url, Surface surface, int targetDelayMs, int maxDelayMs,
+                     Listener listener) {
+        this.surface = surface;
+        this.listener = listener;
+        this.receiver = new LiveTsReceiver(url, demuxer, this);
+        this.jitterBuffer = new JitterBuffer(JITTER_CAPACITY,
+                targetDelayMs * 1000L, maxDelayMs * 1000L);
+        this.multicastLock = receiver.isMulticast() ? createMulticastLock(context) : null;
+    }
+
+    void start() {
+        // 多数设备的Wi-Fi驱动默认过滤组播包，加入组播组后仍需持有组播锁才能收到数据
+        if (multicastLock != null) {
+            multicastLock.acquire();
+        }
+        receiverThread = new Thread(receiver, TAG + "-receiver");
+        decoderThread = new Thread(this, TAG + "-decoder");
+        receiverThread.start();
+        decoderThread.start();
+    }
+
+    void stop() {
+        running = false;
+        receiver.close();
+        join(receiverThread);
+        join(decoderThread);
+        receiverThread = null;
+        decoderThread = null;
+        if (multicastLock != null && multicastLock.isHeld()) {
+            multicastLock.release();
+        }
+        surface.release();
+    }
+
+    private static WifiManager.MulticastLock createMulticastLock(Context context) {
+        WifiManager wifi = (WifiManager) context.getApplicationContext()
+                .getSystemService(Context.WIFI_SERVICE);
+        if (wifi == null) {
+            // 无Wi-Fi的设备（例如仅以太网）不需要组播锁
+            return null;
+        }
+        WifiManager.MulticastLock lock = wifi.createMulticastLock(TAG);
+        lock.setReferenceCounted(false);
+        return lock;
+    }
+
+    @Override
+    public void onVideoFormat(String mime) {
+        Log.d(TAG, "Live video format: " + mime);
+        this.mime = mime;
+    }
+
+    @Override
+    public void onAccessUnit(byte[] data, int offset, int size, long ptsUs, long dtsUs, boolean keyFrame) {
+        long now = System.nanoTime();
+        receiveToRender.markArrival(ptsUs, now);
+        jitterBuffer.offer(data, offset, size, ptsUs, dtsUs, keyFrame, now);
+    }
+
+    @Override
+    public void onReceiveError(IOException e) {
+        Log.e(TAG, "Live receive error", e);
+        listener.onError(e.getMessage());
+    }
+
+    @Override
+    public void run() {
+        MediaCodec codec = null;
+        try {
+            while (running && mime == null) {
+                jitterBuffer.awaitFrame(10);
+            }
+            if (!running) {
+                return;
+            }
+            codec = MediaCodec.createDecoderByType(mime);
+            codec.configure(MediaFormat.createVideoFormat(mime, DEFAULT_WIDTH, DEFAULT_HEIGHT),
+                    surface, null, 0);
+            codec.start();
+            decodeLoop(codec);
+        } catch (InterruptedException e) {
+            // stop() 中断等待
+        } catch (Exception e) {
+            Log.e(TAG, "Live decode error", e);
+            if (running) {
+                listener.onError(e.getMessage());
+            }
+        } finally {
+            if (codec != null) {
+                codec.stop();
+                codec.release();
+            }
+            jitterBuffer.clear();
+        }
+    }
+
+    private void decodeLoop(MediaCodec codec) throws InterruptedException {
+        JitterBuffer.Frame pending = null;
+        long nextStatsNanos = System.nanoTime() + STATS_INTERVAL_NANOS;
+        while (running) {
+            long now = System.nanoTime();
+            boolean busy = false;
+
+            if (pending == null) {
+                pending = jitterBuffer.poll(now);
+            }
+            if (pending != null) {
+                int inIndex = codec.dequeueInputBuffer(0);
+                if (inIndex >= 0) {
+                    ByteBuffer input = codec.getInputBuffer(inIndex);
+                    input.clear();
+                    input.put(pending.data, 0, pending.size);
+                    codec.queueInputBuffer(inIndex, 0, pending.size, pending.ptsUs,
+                            pending.keyFrame ? MediaCodec.BUFFER_FLAG_KEY_FRAME : 0);
+                    jitterBuffer.recycle(pending);
+                    pending = null;
+                    busy = true;
+                }
+            }
+
+            int outIndex = codec.dequeueOutputBuffer(bufferInfo, busy ? 0 : DEQUEUE_TIMEOUT_US);
+            if (outIndex >= 0) {
+                // 直播模式不按PTS等待，解码完成立即上屏
+                codec.releaseOutputBuffer(outIndex, true);
+                receiveToRender.markRendered(bufferInfo.presentationTimeUs, System.nanoTime());
+            } else if (outIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                MediaFormat format = codec.getOutputFormat();
+                listener.onVideoSize(format.getInteger(MediaFormat.KEY_WIDTH),
+                        format.getInteger(MediaFormat.KEY_HEIGHT));
+            }
+
+            if (now >= nextStatsNanos) {
+                nextStatsNanos = now + STATS_INTERVAL_NANOS;
+                listener.onLiveStats(receiveToRender.getLastUs() / 1000,
+                        receiveToRender.getAverageUs() / 1000,
+                        jitterBuffer.getBufferedFrames(), jitterBuffer.getDroppedFrames());
+            }
+        }
+        if (pending != null) {
+            jitterBuffer.recycle(pending);
+        }
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.autoai.watermarkvideoplayer;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.database.Cursor;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Environment;
+import android.provider.DocumentsContract;
+import android.provider.MediaStore;
+import android.util.Log;
 import android.widget.Button;
 import android.widget.SeekBar;
 import android.widget.TextView;
@@ -18,13 +23,21 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+import com.autoai.watermarkvideoplayer.core.IndexJournal;
+import com.autoai.watermarkvideoplayer.core.IndexScheduler;
+
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Main Activity for AVM Watermark Video Player
  */
 public class MainActivity extends AppCompatActivity {
+    private static final String TAG = "MainActivity";
     private static final int PERMISSION_REQUEST_CODE = 100;
+    // 单文件播放占用的解码器数量
+    private static final int PLAYBACK_DECODERS = 1;
 
     private GLCameraVideoView videoView;
     private TextView tvVideoPath;
@@ -38,7 +51,8 @@ public class MainActivity extends AppCompatActivity {
     private Button btnCameraBottomRight;
 
     private VideoConfig videoConfig;
-    private GLCameraVideoView.CameraPosition currentPosition = GLCameraVideoView.CameraPosition.ALL;
+    private CameraPosition currentPosition = CameraPosition.ALL;
+    private IndexScheduler indexScheduler;
 
     // File picker launcher
     private final ActivityResultLauncher<Intent> filePickerLauncher = registerForActivityResult(
@@ -96,6 +110,7 @@ public class MainActivity extends AppCompatActivity {
 
     private void initViews() {
         videoView = findViewById(R.id.gl_camera_video_view);
+        videoView.setOverlayEnabled(true);
         tvVideoPath = findViewById(R.id.tv_video_path);
         tvWatermarkHeight = findViewById(R.id.tv_watermark_height);
         seekbarWatermarkHeight = findViewById(R.id.seekbar_watermark_height);
@@ -106,6 +121,11 @@ public class MainActivity extends AppCompatActivity {
         btnCameraBottomLeft = findViewById(R.id.btn_camera_bottom_left);
         btnCameraBottomRight = findViewById(R.id.btn_camera_bottom_right);
 
+        // 按钮顺序与CameraPosition一致
+        CameraThumbnailStrip thumbnailStrip = findViewById(R.id.camera_thumbnail_strip);
+        thumbnailStrip.bind(videoView, btnCameraAll, btnCameraTopLeft, btnCameraTopRight,
+                btnCameraBottomLeft, btnCameraBottomRight);
+
         // Set video state listener
         videoView.setOnVideoStateListener(new GLCameraVideoView.OnVideoStateListener() {
             @Override
@@ -161,11 +181,11 @@ public class MainActivity extends AppCompatActivity {
         });
 
         // Camera position buttons
-        btnCameraAll.setOnClickListener(v -> setCameraPosition(GLCameraVideoView.CameraPosition.ALL));
-        btnCameraTopLeft.setOnClickListener(v -> setCameraPosition(GLCameraVideoView.CameraPosition.TOP_LEFT));
-        btnCameraTopRight.setOnClickListener(v -> setCameraPosition(GLCameraVideoView.CameraPosition.TOP_RIGHT));
-        btnCameraBottomLeft.setOnClickListener(v -> setCameraPosition(GLCameraVideoView.CameraPosition.BOTTOM_LEFT));
-        btnCameraBottomRight.setOnClickListener(v -> setCameraPosition(GLCameraVideoView.CameraPosition.BOTTOM_RIGHT));
+        btnCameraAll.setOnClickListener(v -> setCameraPosition(CameraPosition.ALL));
+        btnCameraTopLeft.setOnClickListener(v -> setCameraPosition(CameraPosition.TOP_LEFT));
+        btnCameraTopRight.setOnClickListener(v -> setCameraPosition(CameraPosition.TOP_RIGHT));
+        btnCameraBottomLeft.setOnClickListener(v -> setCameraPosition(CameraPosition.BOTTOM_LEFT));
+        btnCameraBottomRight.setOnClickListener(v -> setCameraPosition(CameraPosition.BOTTOM_RIGHT));
     }
 
     private void requestPermissions() {
@@ -206,6 +226,57 @@ public class MainActivity extends AppCompatActivity {
     private void loadVideo(Uri uri) {
         videoView.setVideoUri(uri);
         tvVideoPath.setText(uri.getLastPathSegment());
+        File file = resolveFile(uri);
+        if (file != null) {
+            startFolderIndexing(file);
+        }
+    }
+
+    /**
+     * Local file behind a file:// URI or a content URI from the external storage or media
+     * providers, or null when it cannot be resolved (e.g. a cloud document)
+     */
+    @SuppressWarnings("deprecation")
+    private File resolveFile(Uri uri) {
+        String path = null;
+        if ("file".equals(uri.getScheme())) {
+            path = uri.getPath();
+        } else if (DocumentsContract.isDocumentUri(this, uri)) {
+            String[] parts = DocumentsContract.getDocumentId(uri).split(":", 2);
+            if ("com.android.externalstorage.documents".equals(uri.getAuthority())) {
+                // 文档ID形如 primary:Movies/a.mp4，只能解析主存储
+                if (parts.length == 2 && "primary".equalsIgnoreCase(parts[0])) {
+                    path = new File(Environment.getExternalStorageDirectory(), parts[1]).getPath();
+                }
+            } else if ("com.android.providers.media.documents".equals(uri.getAuthority())) {
+                // 文档ID形如 video:123
+                if (parts.length == 2 && "video".equals(parts[0])) {
+                    path = queryDataPath(Uri.withAppendedPath(
+                            MediaStore.Video.Media.EXTERNAL_CONTENT_URI, parts[1]));
+                }
+            }
+        } else if (MediaStore.AUTHORITY.equals(uri.getAuthority())) {
+            path = queryDataPath(uri);
+        }
+        if (path == null) {
+            return null;
+        }
+        File file = new File(path);
+        return file.isFile() ? file : null;
+    }
+
+    @SuppressWarnings("deprecation")
+    private String queryDataPath(Uri uri) {
+        // DATA列已弃用，但有READ_MEDIA_VIDEO/READ_EXTERNAL_STORAGE权限时仍返回真实路径
+        String[] projection = {MediaStore.MediaColumns.DATA};
+        try (Cursor cursor = getContentResolver().query(uri, projection, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                return cursor.getString(0);
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot resolve " + uri, e);
+        }
+        return null;
     }
 
     private void loadLastVideo() {
@@ -228,11 +299,50 @@ public class MainActivity extends AppCompatActivity {
         // 设置视频路径，这会自动开始准备和播放
         videoView.setVideoPath(videoPath);
         tvVideoPath.setText("161.mp4");
+        startFolderIndexing(videoFile);
 
         Toast.makeText(this, "正在加载视频: " + videoPath, Toast.LENGTH_SHORT).show();
     }
 
-    private void setCameraPosition(GLCameraVideoView.CameraPosition position) {
+    /**
+     * Prepare every segment in the folder of the open file in the background, the open
+     * file first; unfinished work from the last run is resumed from the journal
+     */
+    private void startFolderIndexing(File openFile) {
+        if (indexScheduler == null) {
+            indexScheduler = new IndexScheduler(
+                    new SegmentIndexer(new File(getCacheDir(), "segment_index")),
+                    new IndexJournal(new File(getFilesDir(), "segment_index.journal")),
+                    SegmentIndexer.defaultParallelism(PLAYBACK_DECODERS));
+            indexScheduler.setListener(new IndexScheduler.Listener() {
+                @Override
+                public void onJobFinished(IndexScheduler.Job job, Exception error, int remaining) {
+                    if (error != null) {
+                        Log.w(TAG, "Indexing " + job.file + " failed", error);
+                    } else {
+                        Log.d(TAG, "Indexed " + job.file.getName() + ", " + remaining + " remaining");
+                    }
+                }
+
+                @Override
+                public void onJournalError(IOException e) {
+                    Log.w(TAG, "Index journal error", e);
+                }
+            });
+            indexScheduler.start();
+        }
+        indexScheduler.setOpenFile(openFile);
+        IndexScheduler scheduler = indexScheduler;
+        File folder = openFile.getParentFile();
+        // 日志回放和目录扫描涉及磁盘I/O，放在后台线程
+        new Thread(() -> {
+            int resumed = scheduler.resume();
+            int queued = scheduler.enqueueFolder(folder, SegmentIndexer.SEGMENT_FILES);
+            Log.d(TAG, "Indexing " + folder + ": " + resumed + " resumed, " + queued + " queued");
+        }, "IndexScan").start();
+    }
+
+    private void setCameraPosition(CameraPosition position) {
         currentPosition = position;
         videoView.setCameraPosition(position);
         videoConfig.saveCameraPosition(position);
@@ -241,32 +351,32 @@ public class MainActivity extends AppCompatActivity {
 
     private void updateCameraButtonStates() {
         // Reset all buttons to default color
-        int defaultColor = getColor(R.color.button_bg);
-        int selectedColor = getColor(R.color.button_bg_selected);
+        int defaultColor = getColor(R.color.camera_button_bg);
+        int selectedColor = getColor(R.color.camera_button_bg_selected);
 
         btnCameraAll.setBackgroundTintList(
                 android.content.res.ColorStateList.valueOf(
-                        currentPosition == GLCameraVideoView.CameraPosition.ALL ? selectedColor : defaultColor
+                        currentPosition == CameraPosition.ALL ? selectedColor : defaultColor
                 )
         );
         btnCameraTopLeft.setBackgroundTintList(
                 android.content.res.ColorStateList.valueOf(
-                        currentPosition == GLCameraVideoView.CameraPosition.TOP_LEFT ? selectedColor : defaultColor
+                        currentPosition == CameraPosition.TOP_LEFT ? selectedColor : defaultColor
                 )
         );
         btnCameraTopRight.setBackgroundTintList(
                 android.content.res.ColorStateList.valueOf(
-                        currentPosition == GLCameraVideoView.CameraPosition.TOP_RIGHT ? selectedColor : defaultColor
+                        currentPosition == CameraPosition.TOP_RIGHT ? selectedColor : defaultColor
                 )
         );
         btnCameraBottomLeft.setBackgroundTintList(
                 android.content.res.ColorStateList.valueOf(
-                        currentPosition == GLCameraVideoView.CameraPosition.BOTTOM_LEFT ? selectedColor : defaultColor
+                        currentPosition == CameraPosition.BOTTOM_LEFT ? selectedColor : defaultColor
                 )
         );
         btnCameraBottomRight.setBackgroundTintList(
                 android.content.res.ColorStateList.valueOf(
-                        currentPosition == GLCameraVideoView.CameraPosition.BOTTOM_RIGHT ? selectedColor : defaultColor
+                        currentPosition == CameraPosition.BOTTOM_RIGHT ? selectedColor : defaultColor
                 )
         );
     }
@@ -286,6 +396,9 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (indexScheduler != null) {
+            indexScheduler.shutdown();
+        }
         videoView.release();
     }
 }
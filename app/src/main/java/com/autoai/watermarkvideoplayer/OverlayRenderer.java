@@ -0,0 +1,189 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.opengl.GLES20;
+import android.opengl.GLUtils;
+
+import com.autoai.watermarkvideoplayer.core.GlyphAtlas;
+import com.autoai.watermarkvideoplayer.core.TextOverlay;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Telemetry text overlay drawn on top of the video in a single batched draw call.
+ * <p>
+ * 图集纹理和顶点缓冲（VBO）在onSurfaceCreated时创建一次；文本变化时只重建对应槽位的顶点，
+ * 并用glBufferSubData上传变化的区间。
+ * All methods must be called on the GL thread.
+ */
+class OverlayRenderer {
+    static final int SLOT_TIME = 0;
+    static final int SLOT_CAMERA = 1;
+    static final int SLOT_WATERMARK = 2;
+
+    private static final int[] SLOT_CAPACITIES = {8, 16, 48};
+    private static final int CELL_WIDTH = 32;
+    private static final int CELL_HEIGHT = 48;
+    private static final float MARGIN_PX = 16.0f;
+    private static final float LINE_SPACING = 1.2f;
+    private static final int LINES_PER_SCREEN = 30;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec4 aPosition;\n" +
+            "attribute vec2 aTextureCoord;\n" +
+            "varying vec2 vTextureCoord;\n" +
+            "void main() {\n" +
+            "  gl_Position = aPosition;\n" +
+            "  vTextureCoord = aTextureCoord;\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "precision mediump float;\n" +
+            "varying vec2 vTextureCoord;\n" +
+            "uniform sampler2D sTexture;\n" +
+            "uniform vec4 uColor;\n" +
+            "void main() {\n" +
+            "  gl_FragColor = uColor * texture2D(sTexture, vTextureCoord).a;\n" +
+            "}\n";
+
+    private final GlyphAtlas atlas = new GlyphAtlas(CELL_WIDTH, CELL_HEIGHT);
+    private final TextOverlay text = new TextOverlay(atlas, SLOT_CAPACITIES);
+    // 顶点的CPU副本，只用于向VBO上传变化的区间
+    private final FloatBuffer vertexBuffer;
+    private final char[] timeChars = new char[SLOT_CAPACITIES[SLOT_TIME]];
+
+    private int program;
+    private int atlasTextureId;
+    private int vertexBufferId;
+    private int aPositionHandle;
+    private int aTextureCoordHandle;
+    private int uTextureHandle;
+    private int uColorHandle;
+
+    OverlayRenderer() {
+        vertexBuffer = ByteBuffer.allocateDirect(text.getVertices().length * 4)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        vertexBuffer.put(text.getVertices());
+        vertexBuffer.position(0);
+    }
+
+    void onSurfaceCreated() {
+        program = ShaderUtils.createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        aPositionHandle = GLES20.glGetAttribLocation(program, "aPosition");
+        aTextureCoordHandle = GLES20.glGetAttribLocation(program, "aTextureCoord");
+        uTextureHandle = GLES20.glGetUniformLocation(program, "sTexture");
+        uColorHandle = GLES20.glGetUniformLocation(program, "uColor");
+        atlasTextureId = createAtlasTexture();
+        vertexBufferId = createVertexBuffer();
+    }
+
+    void onSurfaceChanged(int width, int height) {
+        float glyphHeight = Math.max(12.0f, (float) height / LINES_PER_SCREEN);
+        text.setViewport(width, height, glyphHeight);
+        float line = glyphHeight * LINE_SPACING;
+        text.setSlotPosition(SLOT_TIME, MARGIN_PX, MARGIN_PX);
+        text.setSlotPosition(SLOT_CAMERA, MARGIN_PX, MARGIN_PX + line);
+        text.setSlotPosition(SLOT_WATERMARK, MARGIN_PX, MARGIN_PX + 2 * line);
+    }
+
+    void setText(int slot, CharSequence value) {
+        text.setText(slot, value);
+    }
+
+    void setTimeMs(long positionMs) {
+        int length = TextOverlay.formatTime(positionMs, timeChars);
+        text.setText(SLOT_TIME, timeChars, length);
+    }
+
+    void draw() {
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, vertexBufferId);
+        if (text.rebuild()) {
+            int start = text.getDirtyStart();
+            int count = text.getDirtyEnd() - start;
+            vertexBuffer.position(start);
+            vertexBuffer.put(text.getVertices(), start, count);
+            vertexBuffer.position(start);
+            GLES20.glBufferSubData(GLES20.GL_ARRAY_BUFFER, start * 4, count * 4, vertexBuffer);
+            vertexBuffer.position(0);
+            text.clearDirtyRange();
+        }
+
+        GLES20.glEnable(GLES20.GL_BLEND);
+        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLES20.glUseProgram(program);
+
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, atlasTextureId);
+        GLES20.glUniform1i(uTextureHandle, 0);
+        GLES20.glUniform4f(uColorHandle, 1.0f, 1.0f, 0.0f, 1.0f);
+
+        // 交错布局 {x, y, u, v}：纹理坐标从第3个float开始
+        int stride = TextOverlay.FLOATS_PER_VERTEX * 4;
+        GLES20.glEnableVertexAttribArray(aPositionHandle);
+        GLES20.glVertexAttribPointer(aPositionHandle, 2, GLES20.GL_FLOAT, false, stride, 0);
+        GLES20.glEnableVertexAttribArray(aTextureCoordHandle);
+        GLES20.glVertexAttribPointer(aTextureCoordHandle, 2, GLES20.GL_FLOAT, false, stride, 2 * 4);
+
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, text.getVertexCount());
+
+        GLES20.glDisableVertexAttribArray(aPositionHandle);
+        GLES20.glDisableVertexAttribArray(aTextureCoordHandle);
+        // 其余绘制使用客户端顶点数组，必须解绑
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        GLES20.glDisable(GLES20.GL_BLEND);
+    }
+
+    /**
+     * Allocate the VBO for all slots and upload the current vertices; later changes are
+     * uploaded per dirty range
+     */
+    private int createVertexBuffer() {
+        int[] buffers = new int[1];
+        GLES20.glGenBuffers(1, buffers, 0);
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, buffers[0]);
+        vertexBuffer.position(0);
+        GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, vertexBuffer.capacity() * 4, vertexBuffer,
+                GLES20.GL_DYNAMIC_DRAW);
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        return buffers[0];
+    }
+
+    private int createAtlasTexture() {
+        Bitmap bitmap = Bitmap.createBitmap(atlas.getTextureWidth(), atlas.getTextureHeight(),
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.WHITE);
+        paint.setTypeface(Typeface.MONOSPACE);
+        paint.setTextSize(CELL_HEIGHT * 0.8f);
+        paint.setTextAlign(Paint.Align.CENTER);
+        Paint.FontMetrics metrics = paint.getFontMetrics();
+        float baseline = (CELL_HEIGHT - metrics.bottom - metrics.top) / 2.0f;
+
+        char[] glyph = new char[1];
+        for (char c = GlyphAtlas.FIRST_CHAR; c <= GlyphAtlas.LAST_CHAR; c++) {
+            int index = GlyphAtlas.glyphIndex(c);
+            glyph[0] = c;
+            canvas.drawText(glyph, 0, 1,
+                    atlas.cellX(index) + CELL_WIDTH / 2.0f, atlas.cellY(index) + baseline, paint);
+        }
+
+        int[] textures = new int[1];
+        GLES20.glGenTextures(1, textures, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textures[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+        bitmap.recycle();
+        return textures[0];
+    }
+}
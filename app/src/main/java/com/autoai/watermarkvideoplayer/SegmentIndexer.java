@@ -0,0 +1,257 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.graphics.Bitmap;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.media.MediaMetadataRetriever;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.autoai.watermarkvideoplayer.core.IndexScheduler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Prepares one recording segment for review: keyframe table, thumbnails and metadata.
+ * <p>
+ * 结果写入 cacheDir/&lt;文件名&gt;_&lt;大小&gt;_&lt;修改时间&gt;/ ，先写到临时目录再整体重命名，
+ * 目录存在即表示该版本已完成。关键帧扫描只按同步帧跳转读取样本头，不解码；
+ * 缩略图取最近的关键帧，每张只解码一帧。
+ */
+class SegmentIndexer implements IndexScheduler.Task {
+    static final String KEYFRAMES_FILE = "keyframes.txt";
+    static final String METADATA_FILE = "metadata.properties";
+    private static final int THUMBNAIL_COUNT = 8;
+    private static final int THUMBNAIL_WIDTH = 320;
+    private static final int THUMBNAIL_QUALITY = 80;
+    // 无法查询解码器实例数时（API 23以下）假定的数量
+    private static final int DEFAULT_DECODER_INSTANCES = 2;
+
+    /** Video files a recording folder may contain */
+    static final FileFilter SEGMENT_FILES = file -> {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return file.isFile() && (name.endsWith(".mp4") || name.endsWith(".ts"));
+    };
+
+    private final File cacheDir;
+
+    SegmentIndexer(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Worker count for this device, leaving decoders for playback
+     */
+    static int defaultParallelism(int playbackDecoders) {
+        int decoders = DEFAULT_DECODER_INSTANCES;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            decoders = maxDecoderInstances(MediaFormat.MIMETYPE_VIDEO_AVC);
+        }
+        return IndexScheduler.parallelismFor(Runtime.getRuntime().availableProcessors(),
+                decoders - playbackDecoders);
+    }
+
+    /**
+     * Result folder for this version of the file
+     */
+    File getResultDir(IndexScheduler.Job job) {
+        return new File(cacheDir, job.file.getName() + "_" + job.size + "_" + job.lastModified);
+    }
+
+    @Override
+    public boolean isCached(IndexScheduler.Job job) {
+        return getResultDir(job).isDirectory();
+    }
+
+    @Override
+    public void run(IndexScheduler.Job job) throws Exception {
+        File result = getResultDir(job);
+        File tmp = new File(result.getPath() + ".tmp");
+        deleteRecursively(tmp);
+        if (!tmp.mkdirs()) {
+            throw new IOException("Cannot create " + tmp);
+        }
+
+        long[] keyframes = scanKeyframes(job.file);
+        writeKeyframes(new File(tmp, KEYFRAMES_FILE), keyframes);
+
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(job.file.getPath());
+            writeMetadata(new File(tmp, METADATA_FILE), retriever, keyframes.length);
+            writeThumbnails(tmp, retriever);
+        } finally {
+            retriever.release();
+        }
+
+        deleteRecursively(result);
+        if (!tmp.renameTo(result)) {
+            deleteRecursively(tmp);
+            throw new IOException("Cannot rename " + tmp + " to " + result);
+        }
+    }
+
+    /**
+     * Presentation times (us) of the video sync samples, found by seeking from one sync
+     * sample to the next
+     */
+    private static long[] scanKeyframes(File file) throws IOException, InterruptedException {
+        MediaExtractor extractor = new MediaExtractor();
+        try {
+            extractor.setDataSource(file.getPath());
+            int track = -1;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                String mime = extractor.getTrackFormat(i).getString(MediaFormat.KEY_MIME);
+                if (mime != null && mime.startsWith("video/")) {
+                    track = i;
+                    break;
+                }
+            }
+            if (track < 0) {
+                throw new IOException("No video track in " + file);
+            }
+            extractor.selectTrack(track);
+
+            long[] times = new long[64];
+            int count = 0;
+            long seekUs = 0;
+            while (true) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                extractor.seekTo(seekUs, MediaExtractor.SEEK_TO_NEXT_SYNC);
+                long timeUs = extractor.getSampleTime();
+                if (timeUs < 0 || (count > 0 && timeUs <= times[count - 1])) {
+                    break;
+                }
+                if (count == times.length) {
+                    long[] grown = new long[count * 2];
+                    System.arraycopy(times, 0, grown, 0, count);
+                    times = grown;
+                }
+                times[count++] = timeUs;
+                seekUs = timeUs + 1;
+            }
+            long[] result = new long[count];
+            System.arraycopy(times, 0, result, 0, count);
+            return result;
+        } finally {
+            extractor.release();
+        }
+    }
+
+    private static void writeKeyframes(File file, long[] keyframes) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (long timeUs : keyframes) {
+                out.write(Long.toString(timeUs));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static void writeMetadata(File file, MediaMetadataRetriever retriever, int keyframes)
+            throws IOException {
+        Properties metadata = new Properties();
+        putMetadata(metadata, "durationMs", retriever, MediaMetadataRetriever.METADATA_KEY_DURATION);
+        putMetadata(metadata, "width", retriever, MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH);
+        putMetadata(metadata, "height", retriever, MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT);
+        putMetadata(metadata, "rotation", retriever, MediaMetadataRetriever.METADATA_KEY_VIDEO_ROTATION);
+        putMetadata(metadata, "bitrate", retriever, MediaMetadataRetriever.METADATA_KEY_BITRATE);
+        putMetadata(metadata, "mimeType", retriever, MediaMetadataRetriever.METADATA_KEY_MIMETYPE);
+        putMetadata(metadata, "date", retriever, MediaMetadataRetriever.METADATA_KEY_DATE);
+        metadata.setProperty("keyframes", Integer.toString(keyframes));
+        try (OutputStream out = new FileOutputStream(file)) {
+            metadata.store(out, null);
+        }
+    }
+
+    private static void putMetadata(Properties metadata, String name,
+                                    MediaMetadataRetriever retriever, int key) {
+        String value = retriever.extractMetadata(key);
+        if (value != null) {
+            metadata.setProperty(name, value);
+        }
+    }
+
+    /**
+     * Evenly spaced thumbnails, each taken from the closest sync frame
+     */
+    private static void writeThumbnails(File dir, MediaMetadataRetriever retriever)
+            throws IOException, InterruptedException {
+        String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+        long durationUs = duration != null ? Long.parseLong(duration) * 1000 : 0;
+        for (int i = 0; i < THUMBNAIL_COUNT; i++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long timeUs = durationUs * (2 * i + 1) / (2 * THUMBNAIL_COUNT);
+            Bitmap frame = thumbnailAt(retriever, timeUs);
+            if (frame == null) {
+                continue;
+            }
+            try (OutputStream out = new FileOutputStream(
+                    new File(dir, String.format(Locale.ROOT, "thumb_%02d.jpg", i)))) {
+                frame.compress(Bitmap.CompressFormat.JPEG, THUMBNAIL_QUALITY, out);
+            } finally {
+                frame.recycle();
+            }
+        }
+    }
+
+    private static Bitmap thumbnailAt(MediaMetadataRetriever retriever, long timeUs) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+            // 解码器直接输出缩放后的帧，不分配全尺寸Bitmap
+            return retriever.getScaledFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                    THUMBNAIL_WIDTH, THUMBNAIL_WIDTH);
+        }
+        Bitmap full = retriever.getFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+        if (full == null || full.getWidth() <= THUMBNAIL_WIDTH) {
+            return full;
+        }
+        int height = Math.max(1, full.getHeight() * THUMBNAIL_WIDTH / full.getWidth());
+        Bitmap scaled = Bitmap.createScaledBitmap(full, THUMBNAIL_WIDTH, height, true);
+        full.recycle();
+        return scaled;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.M)
+    private static int maxDecoderInstances(String mime) {
+        int max = 0;
+        MediaCodecList codecs = new MediaCodecList(MediaCodecList.REGULAR_CODECS);
+        for (MediaCodecInfo info : codecs.getCodecInfos()) {
+            if (info.isEncoder()) {
+                continue;
+            }
+            for (String type : info.getSupportedTypes()) {
+                if (type.equalsIgnoreCase(mime)) {
+                    max = Math.max(max, info.getCapabilitiesForType(type).getMaxSupportedInstances());
+                }
+            }
+        }
+        return max > 0 ? max : DEFAULT_DECODER_INSTANCES;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
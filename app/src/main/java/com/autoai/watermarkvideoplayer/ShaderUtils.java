@@ -0,0 +1,31 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.opengl.GLES20;
+
+/**
+ * Shader compile/link helpers shared by the render passes
+ */
+final class ShaderUtils {
+
+    private ShaderUtils() {
+    }
+
+    static int createProgram(String vertexSource, String fragmentSource) {
+        int vertexShader = loadShader(GLES20.GL_VERTEX_SHADER, vertexSource);
+        int fragmentShader = loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
+
+        int program = GLES20.glCreateProgram();
+        GLES20.glAttachShader(program, vertexShader);
+        GLES20.glAttachShader(program, fragmentShader);
+        GLES20.glLinkProgram(program);
+
+        return program;
+    }
+
+    static int loadShader(int type, String shaderCode) {
+        int shader = GLES20.glCreateShader(type);
+        GLES20.glShaderSource(shader, shaderCode);
+        GLES20.glCompileShader(shader);
+        return shader;
+    }
+}
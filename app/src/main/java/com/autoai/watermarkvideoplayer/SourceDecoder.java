@@ -0,0 +1,181 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.util.Log;
+import android.view.Surface;
+
+import com.autoai.watermarkvideoplayer.core.StreamSyncController;
+
+/**
+ * Decodes one per-camera file into its own Surface, pacing output against a shared
+ * {@link StreamSyncController}
+ */
+class SourceDecoder implements Runnable {
+    private static final String TAG = "SourceDecoder";
+    private static final long DEQUEUE_TIMEOUT_US = 10_000;
+    private static final long MAX_WAIT_MS = 10;
+
+    interface Listener {
+        void onVideoSize(int stream, int width, int height);
+        void onError(int stream, String error);
+    }
+
+    private final int stream;
+    private final String path;
+    private final Surface surface;
+    private final StreamSyncController sync;
+    private final long startPositionUs;
+    private final Listener listener;
+    private final MediaCodec.BufferInfo bufferInfo = new MediaCodec.BufferInfo();
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    SourceDecoder(int stream, String path, Surface surface,
+                  StreamSyncController sync, long startPositionUs, Listener listener) {
+        this.stream = stream;
+        this.path = path;
+        this.surface = surface;
+        this.sync = sync;
+        this.startPositionUs = startPositionUs;
+        this.listener = listener;
+    }
+
+    void start() {
+        thread = new Thread(this, TAG + "-" + stream);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        try {
+            extractor.setDataSource(path);
+            MediaFormat format = selectVideoTrack(extractor);
+            if (format == null) {
+                sync.removeStream(stream);
+                listener.onError(stream, "No video track: " + path);
+                return;
+            }
+            listener.onVideoSize(stream,
+                    format.getInteger(MediaFormat.KEY_WIDTH),
+                    format.getInteger(MediaFormat.KEY_HEIGHT));
+
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, surface, null, 0);
+            codec.start();
+            if (startPositionUs > 0) {
+                extractor.seekTo(startPositionUs, MediaExtractor.SEEK_TO_PREVIOUS_SYNC);
+            }
+            decodeLoop(extractor, codec);
+        } catch (InterruptedException e) {
+            // stop() 中断等待
+        } catch (Exception e) {
+            Log.e(TAG, "Stream " + stream + " decode error", e);
+            // 其余流不再等待这一路预读和循环
+            sync.removeStream(stream);
+            if (running) {
+                listener.onError(stream, e.getMessage());
+            }
+        } finally {
+            if (codec != null) {
+                codec.stop();
+                codec.release();
+            }
+            extractor.release();
+            surface.release();
+        }
+    }
+
+    private void decodeLoop(MediaExtractor extractor, MediaCodec codec) throws InterruptedException {
+        boolean inputDone = false;
+        while (running) {
+            if (!inputDone) {
+                inputDone = queueInput(extractor, codec);
+            }
+
+            int outIndex = codec.dequeueOutputBuffer(bufferInfo, DEQUEUE_TIMEOUT_US);
+            if (outIndex < 0) {
+                continue;
+            }
+
+            if ((bufferInfo.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                codec.releaseOutputBuffer(outIndex, false);
+                // 等待其他流结束后统一回到开头，实现同步循环播放
+                sync.awaitGeneration(sync.markEnded(stream));
+                extractor.seekTo(0, MediaExtractor.SEEK_TO_PREVIOUS_SYNC);
+                codec.flush();
+                inputDone = false;
+                continue;
+            }
+
+            long ptsUs = bufferInfo.presentationTimeUs;
+            StreamSyncController.Action action = sync.decide(stream, ptsUs);
+            while (running && action == StreamSyncController.Action.WAIT) {
+                long waitUs = sync.timeUntilDueUs(stream, ptsUs);
+                Thread.sleep(Math.max(1, Math.min(MAX_WAIT_MS, waitUs / 1000)));
+                action = sync.decide(stream, ptsUs);
+            }
+
+            switch (action) {
+                case RENDER:
+                    codec.releaseOutputBuffer(outIndex, true);
+                    break;
+                case RESYNC:
+                    codec.releaseOutputBuffer(outIndex, false);
+                    long clockUs = sync.getClock().getPositionUs();
+                    Log.d(TAG, "Stream " + stream + " resync at " + clockUs + "us");
+                    extractor.seekTo(clockUs, MediaExtractor.SEEK_TO_PREVIOUS_SYNC);
+                    codec.flush();
+                    inputDone = false;
+                    break;
+                default:
+                    codec.releaseOutputBuffer(outIndex, false);
+                    break;
+            }
+        }
+    }
+
+    private boolean queueInput(MediaExtractor extractor, MediaCodec codec) {
+        int inIndex = codec.dequeueInputBuffer(DEQUEUE_TIMEOUT_US);
+        if (inIndex < 0) {
+            return false;
+        }
+        int size = extractor.readSampleData(codec.getInputBuffer(inIndex), 0);
+        if (size < 0) {
+            codec.queueInputBuffer(inIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+            return true;
+        }
+        codec.queueInputBuffer(inIndex, 0, size, extractor.getSampleTime(), 0);
+        extractor.advance();
+        return false;
+    }
+
+    private static MediaFormat selectVideoTrack(MediaExtractor extractor) {
+        for (int i = 0; i < extractor.getTrackCount(); i++) {
+            MediaFormat format = extractor.getTrackFormat(i);
+            String mime = format.getString(MediaFormat.KEY_MIME);
+            if (mime != null && mime.startsWith("video/")) {
+                extractor.selectTrack(i);
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.autoai.watermarkvideoplayer;
+
+import android.graphics.SurfaceTexture;
+import android.opengl.GLES11Ext;
+import android.opengl.GLES20;
+import android.util.Log;
+
+import com.autoai.watermarkvideoplayer.core.ThumbnailAtlas;
+import com.autoai.watermarkvideoplayer.core.VideoLayout;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Live camera thumbnails for the selector buttons, drawn from the same external video
+ * texture as the main view.
+ * <p>
+ * 每隔 INTERVAL_FRAMES 个新视频帧：一次绘制把5个区域写入图集FBO，再一次绘制把图集拷贝到
+ * 按钮后方TextureView的EGL窗口表面（与主渲染共享上下文），不经过Bitmap。
+ * All methods except {@link #setTargetRects(float[])} must be called on the GL thread.
+ */
+class ThumbnailRenderer {
+    private static final String TAG = "ThumbnailRenderer";
+    private static final int CELL_WIDTH = 192;
+    private static final int CELL_HEIGHT = 108;
+    // 缩略图每隔这么多个新视频帧刷新一次
+    private static final int INTERVAL_FRAMES = 6;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec4 aPosition;\n" +
+            "attribute vec2 aTextureCoord;\n" +
+            "varying vec2 vTextureCoord;\n" +
+            "void main() {\n" +
+            "  gl_Position = aPosition;\n" +
+            "  vTextureCoord = aTextureCoord;\n" +
+            "}\n";
+
+    private static final String ATLAS_FRAGMENT_SHADER =
+            "#extension GL_OES_EGL_image_external : require\n" +
+            "precision mediump float;\n" +
+            "varying vec2 vTextureCoord;\n" +
+            "uniform samplerExternalOES sTexture;\n" +
+            "void main() {\n" +
+            "  gl_FragColor = texture2D(sTexture, vTextureCoord);\n" +
+            "}\n";
+
+    private static final String PRESENT_FRAGMENT_SHADER =
+            "precision mediump float;\n" +
+            "varying vec2 vTextureCoord;\n" +
+            "uniform sampler2D sTexture;\n" +
+            "void main() {\n" +
+            "  gl_FragColor = texture2D(sTexture, vTextureCoord);\n" +
+            "}\n";
+
+    private final ThumbnailAtlas atlas = new ThumbnailAtlas(CELL_WIDTH, CELL_HEIGHT);
+    private final float[] atlasVertices = new float[atlas.getFloatCount()];
+    private final float[] presentVertices = new float[atlas.getFloatCount()];
+    private final FloatBuffer atlasBuffer;
+    private final FloatBuffer presentBuffer;
+    private int presentVertexCount = 0;
+
+    // 按钮矩形由UI线程写入，GL线程在呈现前复制
+    private final float[] pendingRects = new float[atlas.getCellCount() * 4];
+    private final float[] targetRects = new float[atlas.getCellCount() * 4];
+    private boolean rectsChanged = false;
+
+    private int atlasProgram;
+    private int atlasPositionHandle;
+    private int atlasTextureCoordHandle;
+    private int atlasTextureHandle;
+    private int presentProgram;
+    private int presentPositionHandle;
+    private int presentTextureCoordHandle;
+    private int presentTextureHandle;
+    private final int[] framebuffer = new int[1];
+    private final int[] atlasTexture = new int[1];
+
+    private SurfaceTexture window;
+    private int windowWidth;
+    private int windowHeight;
+    private final EglWindowSurface windowSurface = new EglWindowSurface();
+    private float[] clearColor = {0.0f, 0.0f, 0.0f, 1.0f};
+
+    private int framesSinceUpdate = 0;
+    private boolean updatePending = true;
+
+    ThumbnailRenderer() {
+        atlas.fillAtlasVertices(VideoLayout.TEX_MARGIN, atlasVertices);
+        atlasBuffer = ByteBuffer.allocateDirect(atlasVertices.length * 4)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        atlasBuffer.put(atlasVertices).position(0);
+        presentBuffer = ByteBuffer.allocateDirect(presentVertices.length * 4)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    void onSurfaceCreated() {
+        atlasProgram = ShaderUtils.createProgram(VERTEX_SHADER, ATLAS_FRAGMENT_SHADER);
+        atlasPositionHandle = GLES20.glGetAttribLocation(atlasProgram, "aPosition");
+        atlasTextureCoordHandle = GLES20.glGetAttribLocation(atlasProgram, "aTextureCoord");
+        atlasTextureHandle = GLES20.glGetUniformLocation(atlasProgram, "sTexture");
+        presentProgram = ShaderUtils.createProgram(VERTEX_SHADER, PRESENT_FRAGMENT_SHADER);
+        presentPositionHandle = GLES20.glGetAttribLocation(presentProgram, "aPosition");
+        presentTextureCoordHandle = GLES20.glGetAttribLocation(presentProgram, "aTextureCoord");
+        presentTextureHandle = GLES20.glGetUniformLocation(presentProgram, "sTexture");
+        // 上下文重建后旧句柄已失效
+        framebuffer[0] = 0;
+        atlasTexture[0] = 0;
+        createAtlas();
+        // EGL表面属于display而非上下文，需按新上下文的配置重新创建
+        windowSurface.release();
+        if (window != null) {
+            windowSurface.create(window);
+        }
+        updatePending = true;
+    }
+
+    /**
+     * Attach (or detach with null) the TextureView surface behind the selector buttons
+     */
+    void setTarget(SurfaceTexture window, int width, int height) {
+        if (window != this.window) {
+            windowSurface.release();
+            this.window = window;
+            if (window != null) {
+                windowSurface.create(window);
+            }
+        }
+        windowWidth = width;
+        windowHeight = height;
+        synchronized (this) {
+            rectsChanged = true;
+        }
+        updatePending = true;
+    }
+
+    /**
+     * Button rectangles {x, y, width, height} per CameraPosition, normalized to the target
+     * surface with y down; any thread
+     */
+    synchronized void setTargetRects(float[] rects) {
+        System.arraycopy(rects, 0, pendingRects, 0, pendingRects.length);
+        rectsChanged = true;
+    }
+
+    void setClearColor(float r, float g, float b) {
+        clearColor = new float[]{r, g, b, 1.0f};
+    }
+
+    boolean isActive() {
+        return windowSurface.isValid();
+    }
+
+    /**
+     * A new video frame was latched into the external texture
+     */
+    void onFrameLatched() {
+        framesSinceUpdate++;
+    }
+
+    /**
+     * Called after the main frame is drawn; refreshes the thumbnails every interval frames
+     *
+     * @return true if the thumbnails were drawn (the caller must restore its viewport)
+     */
+    boolean draw(int videoTexture) {
+        if (!isActive() || framebuffer[0] == 0) {
+            return false;
+        }
+        boolean layoutChanged;
+        synchronized (this) {
+            layoutChanged = rectsChanged;
+            if (rectsChanged) {
+                System.arraycopy(pendingRects, 0, targetRects, 0, targetRects.length);
+                rectsChanged = false;
+            }
+        }
+        if (framesSinceUpdate < INTERVAL_FRAMES && !layoutChanged && !updatePending) {
+            return false;
+        }
+        framesSinceUpdate = 0;
+        updatePending = false;
+        if (layoutChanged) {
+            presentVertexCount = atlas.fillPresentVertices(targetRects, windowWidth, windowHeight,
+                    presentVertices);
+            presentBuffer.clear();
+            presentBuffer.put(presentVertices, 0, presentVertexCount * ThumbnailAtlas.FLOATS_PER_VERTEX);
+            presentBuffer.position(0);
+        }
+
+        drawAtlas(videoTexture);
+        present();
+        return true;
+    }
+
+    private void drawAtlas(int videoTexture) {
+        GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, framebuffer[0]);
+        GLES20.glViewport(0, 0, atlas.getTextureWidth(), atlas.getTextureHeight());
+        GLES20.glUseProgram(atlasProgram);
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTexture);
+        GLES20.glUniform1i(atlasTextureHandle, 0);
+        drawVertices(atlasPositionHandle, atlasTextureCoordHandle, atlasBuffer, atlas.getVertexCount());
+        GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, 0);
+    }
+
+    private void present() {
+        if (!windowSurface.makeCurrent()) {
+            return;
+        }
+
+        GLES20.glViewport(0, 0, windowWidth, windowHeight);
+        GLES20.glClearColor(clearColor[0], clearColor[1], clearColor[2], clearColor[3]);
+        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+        if (presentVertexCount > 0) {
+            GLES20.glUseProgram(presentProgram);
+            GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, atlasTexture[0]);
+            GLES20.glUniform1i(presentTextureHandle, 0);
+            drawVertices(presentPositionHandle, presentTextureCoordHandle, presentBuffer,
+                    presentVertexCount);
+        }
+        windowSurface.swapAndRestore();
+        GLES20.glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
+    }
+
+    private void drawVertices(int position, int textureCoord, FloatBuffer vertices, int count) {
+        int stride = ThumbnailAtlas.FLOATS_PER_VERTEX * 4;
+        vertices.position(0);
+        GLES20.glEnableVertexAttribArray(position);
+        GLES20.glVertexAttribPointer(position, 2, GLES20.GL_FLOAT, false, stride, vertices);
+        vertices.position(2);
+        GLES20.glEnableVertexAttribArray(textureCoord);
+        GLES20.glVertexAttribPointer(textureCoord, 2, GLES20.GL_FLOAT, false, stride, vertices);
+        vertices.position(0);
+
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, count);
+
+        GLES20.glDisableVertexAttribArray(position);
+        GLES20.glDisableVertexAttribArray(textureCoord);
+    }
+
+    private void createAtlas() {
+        GLES20.glGenTextures(1, atlasTexture, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, atlasTexture[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA,
+                atlas.getTextureWidth(), atlas.getTextureHeight(), 0,
+                GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, null);
+
+        GLES20.glGenFramebuffers(1, framebuffer, 0);
+        GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, framebuffer[0]);
+        GLES20.glFramebufferTexture2D(GLES20.GL_FRAMEBUFFER, GLES20.GL_COLOR_ATTACHMENT0,
+                GLES20.GL_TEXTURE_2D, atlasTexture[0], 0);
+        if (GLES20.glCheckFramebufferStatus(GLES20.GL_FRAMEBUFFER) != GLES20.GL_FRAMEBUFFER_COMPLETE) {
+            Log.w(TAG, "Thumbnail atlas framebuffer incomplete");
+            GLES20.glDeleteFramebuffers(1, framebuffer, 0);
+            GLES20.glDeleteTextures(1, atlasTexture, 0);
+            framebuffer[0] = 0;
+            atlasTexture[0] = 0;
+        }
+        GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, 0);
+    }
+}
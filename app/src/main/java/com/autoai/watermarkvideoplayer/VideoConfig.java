@@ -4,6 +4,9 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
 
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+import com.autoai.watermarkvideoplayer.core.RenderRegions;
+
 /**
  * Configuration manager for video player settings
  */
@@ -46,7 +49,7 @@ public class VideoConfig {
      */
     public void saveWatermarkHeight(float height) {
         preferences.edit()
-                .putFloat(KEY_WATERMARK_HEIGHT, height)
+                .putFloat(KEY_WATERMARK_HEIGHT, RenderRegions.clampWatermarkHeight(height))
                 .apply();
     }
 
@@ -54,13 +57,14 @@ public class VideoConfig {
      * Get watermark height ratio
      */
     public float getWatermarkHeight() {
-        return preferences.getFloat(KEY_WATERMARK_HEIGHT, 0.1f);
+        return RenderRegions.clampWatermarkHeight(
+                preferences.getFloat(KEY_WATERMARK_HEIGHT, RenderRegions.DEFAULT_WATERMARK_HEIGHT));
     }
 
     /**
      * Save camera position
      */
-    public void saveCameraPosition(GLCameraVideoView.CameraPosition position) {
+    public void saveCameraPosition(CameraPosition position) {
         preferences.edit()
                 .putString(KEY_CAMERA_POSITION, position.name())
                 .apply();
@@ -69,14 +73,9 @@ public class VideoConfig {
     /**
      * Get camera position
      */
-    public GLCameraVideoView.CameraPosition getCameraPosition() {
-        String positionName = preferences.getString(KEY_CAMERA_POSITION,
-                GLCameraVideoView.CameraPosition.ALL.name());
-        try {
-            return GLCameraVideoView.CameraPosition.valueOf(positionName);
-        } catch (IllegalArgumentException e) {
-            return GLCameraVideoView.CameraPosition.ALL;
-        }
+    public CameraPosition getCameraPosition() {
+        return CameraPosition.fromName(preferences.getString(KEY_CAMERA_POSITION,
+                CameraPosition.ALL.name()));
     }
 
     /**
@@ -0,0 +1,79 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.BlockCache;
+import com.autoai.watermarkvideoplayer.core.BlockSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-read latency distribution of MediaPlayer-style sequential reads on a throttled
+ * fake SD card, uncached vs. {@link BlockCache} with read-ahead.
+ * <p>
+ * 模拟以约8Mbps码率播放：每次读取16KB，读取之间留出播放间隔，文件读完后回到开头（循环播放）。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockCacheBenchmark {
+    private static final long FILE_SIZE = 8L * 1024 * 1024;
+    private static final int READ_SIZE = 16 * 1024;
+    private static final long PLAYBACK_GAP_NANOS = 2_000_000;
+
+    private BlockSource direct;
+    private BlockCache cache;
+    private final byte[] buffer = new byte[READ_SIZE];
+    private long directPosition;
+    private long cachedPosition;
+
+    @Setup
+    public void setup() throws IOException {
+        // 2ms请求延迟，20MB/s吞吐
+        direct = new ThrottledBlockSource(FILE_SIZE, 2000, 20L * 1024 * 1024);
+        cache = new BlockCache(new ThrottledBlockSource(FILE_SIZE, 2000, 20L * 1024 * 1024));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        direct.close();
+        cache.close();
+    }
+
+    /**
+     * 播放间隔不计入测量
+     */
+    @Setup(Level.Invocation)
+    public void playbackGap() {
+        LockSupport.parkNanos(PLAYBACK_GAP_NANOS);
+    }
+
+    @Benchmark
+    public int uncachedSequentialRead() throws IOException {
+        int read = direct.read(directPosition, buffer, 0, READ_SIZE);
+        directPosition = next(directPosition, read);
+        return read;
+    }
+
+    @Benchmark
+    public int cachedSequentialRead() throws IOException {
+        int read = cache.readAt(cachedPosition, buffer, 0, READ_SIZE);
+        cachedPosition = next(cachedPosition, read);
+        return read;
+    }
+
+    private static long next(long position, int read) {
+        long next = position + Math.max(read, 0);
+        return next >= FILE_SIZE ? 0 : next;
+    }
+}
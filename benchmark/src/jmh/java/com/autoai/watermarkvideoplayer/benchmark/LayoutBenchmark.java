@@ -0,0 +1,59 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.CameraPosition;
+import com.autoai.watermarkvideoplayer.core.RenderRegions;
+import com.autoai.watermarkvideoplayer.core.VideoLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout computation: letterbox scale, vertex quad and camera region updates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LayoutBenchmark {
+
+    @Param({"1920x1080", "2560x1440", "1280x1600"})
+    public String surface;
+
+    private int surfaceWidth;
+    private int surfaceHeight;
+    private final float[] scale = new float[2];
+    private final float[] vertexCoords = new float[VideoLayout.QUAD_FLOATS];
+    private final RenderRegions regions = new RenderRegions();
+    private final CameraPosition[] positions = CameraPosition.values();
+    private int positionIndex;
+
+    @Setup
+    public void setup() {
+        String[] size = surface.split("x");
+        surfaceWidth = Integer.parseInt(size[0]);
+        surfaceHeight = Integer.parseInt(size[1]);
+    }
+
+    @Benchmark
+    public void letterbox(Blackhole bh) {
+        VideoLayout.computeLetterboxScale(1920, 1080, surfaceWidth, surfaceHeight, scale);
+        VideoLayout.fillVertexCoords(scale[0], scale[1], vertexCoords);
+        bh.consume(vertexCoords);
+    }
+
+    @Benchmark
+    public void cameraRegions(Blackhole bh) {
+        CameraPosition position = positions[positionIndex];
+        positionIndex = (positionIndex + 1) % positions.length;
+        regions.update(position, 0.1f);
+        bh.consume(regions.isDualMode() ? regions.getCameraRegion() : regions.getCropRegion());
+    }
+}
@@ -0,0 +1,56 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.GlyphAtlas;
+import com.autoai.watermarkvideoplayer.core.TextOverlay;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame CPU cost of the text overlay: unchanged frames vs. a time label tick
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TextOverlayBenchmark {
+    private final TextOverlay overlay = new TextOverlay(new GlyphAtlas(32, 48), 8, 16, 48);
+    private final char[] time = new char[8];
+    private long positionMs;
+
+    @Setup
+    public void setup() {
+        overlay.setViewport(1920, 1080, 36.0f);
+        overlay.setSlotPosition(0, 16, 16);
+        overlay.setSlotPosition(1, 16, 60);
+        overlay.setSlotPosition(2, 16, 104);
+        overlay.setText(1, "TOP_LEFT");
+        overlay.setText(2, "VIN LSGAR5AL0HH000000 2024-05-01 12:00:00");
+        overlay.rebuild();
+        overlay.clearDirtyRange();
+    }
+
+    @Benchmark
+    public boolean unchangedFrame() {
+        overlay.setText(1, "TOP_LEFT");
+        boolean dirty = overlay.rebuild();
+        overlay.clearDirtyRange();
+        return dirty;
+    }
+
+    @Benchmark
+    public boolean timeTick() {
+        positionMs += 100;
+        int length = TextOverlay.formatTime(positionMs, time);
+        overlay.setText(0, time, length);
+        boolean dirty = overlay.rebuild();
+        overlay.clearDirtyRange();
+        return dirty;
+    }
+}
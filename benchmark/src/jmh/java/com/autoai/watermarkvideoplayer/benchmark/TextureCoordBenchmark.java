@@ -0,0 +1,45 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.VideoLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Texture-coordinate generation and upload into the direct buffer used by the renderer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TextureCoordBenchmark {
+
+    private final float[] textureCoords = new float[VideoLayout.QUAD_FLOATS];
+    private final FloatBuffer textureBuffer = ByteBuffer.allocateDirect(VideoLayout.QUAD_FLOATS * 4)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+
+    @Benchmark
+    public void fillTextureCoords(Blackhole bh) {
+        VideoLayout.fillTextureCoords(VideoLayout.TEX_MARGIN, textureCoords);
+        bh.consume(textureCoords);
+    }
+
+    @Benchmark
+    public void fillAndUpload(Blackhole bh) {
+        VideoLayout.fillTextureCoords(VideoLayout.TEX_MARGIN, textureCoords);
+        textureBuffer.clear();
+        textureBuffer.put(textureCoords);
+        textureBuffer.position(0);
+        bh.consume(textureBuffer);
+    }
+}
@@ -0,0 +1,42 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.BlockSource;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory fake of a slow SD card: fixed latency per request plus limited throughput
+ */
+final class ThrottledBlockSource implements BlockSource {
+    private final long size;
+    private final long requestLatencyNanos;
+    private final long bytesPerSecond;
+
+    ThrottledBlockSource(long size, long requestLatencyMicros, long bytesPerSecond) {
+        this.size = size;
+        this.requestLatencyNanos = requestLatencyMicros * 1000;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length) {
+        if (position >= size) {
+            return -1;
+        }
+        int count = (int) Math.min(length, size - position);
+        LockSupport.parkNanos(requestLatencyNanos + count * 1_000_000_000L / bytesPerSecond);
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = (byte) (position + i);
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
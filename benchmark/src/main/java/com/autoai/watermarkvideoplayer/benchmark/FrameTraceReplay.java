@@ -0,0 +1,114 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.FrameTrace;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a frame trace recorded with GLCameraVideoView.startFrameTrace() through
+ * {@link RenderLoopSimulator} and reports dropped frames and latency as JSON.
+ * <p>
+ * 用法：./gradlew :benchmark:frameReplay --args="session.ftrc [--out metrics.json] [--baseline base.json]"
+ * <p>
+ * 指定 --baseline 时与上一版本的结果比较，丢帧率上升超过 1 个百分点，或 P95 延迟上升
+ * 超过 10% 且超过 1ms 即判定为回归，进程以退出码 2 结束，便于CI拦截。
+ */
+public final class FrameTraceReplay {
+    private static final double DROP_RATE_TOLERANCE = 0.01;
+    private static final double LATENCY_TOLERANCE_RATIO = 0.10;
+    private static final double LATENCY_TOLERANCE_MS = 1.0;
+
+    private FrameTraceReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: FrameTraceReplay <trace.ftrc> [--out metrics.json] [--baseline base.json]");
+            System.exit(1);
+        }
+        String out = null;
+        String baseline = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if ("--out".equals(args[i])) {
+                out = args[i + 1];
+            } else if ("--baseline".equals(args[i])) {
+                baseline = args[i + 1];
+            }
+        }
+
+        FrameTrace trace;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            trace = FrameTrace.readFrom(in);
+        }
+        if (trace.isTruncated()) {
+            System.err.println("warning: trace was truncated during recording");
+        }
+        RenderLoopSimulator.Result result = new RenderLoopSimulator(trace).run();
+        String json = toJson(result);
+        System.out.println(json);
+        if (out != null) {
+            try (Writer writer = new FileWriter(out)) {
+                writer.write(json);
+                writer.write('\n');
+            }
+        }
+
+        if (baseline != null) {
+            String base = new String(Files.readAllBytes(Paths.get(baseline)), StandardCharsets.UTF_8);
+            if (compare(base, result)) {
+                System.exit(2);
+            }
+        }
+    }
+
+    private static String toJson(RenderLoopSimulator.Result r) {
+        return String.format(Locale.ROOT,
+                "{\"frames\":%d,\"drawn\":%d,\"dropped\":%d,\"dropRate\":%.4f,\"draws\":%d,"
+                        + "\"latencyP50Ms\":%.3f,\"latencyP95Ms\":%.3f,\"latencyMaxMs\":%.3f,"
+                        + "\"levelChanges\":%d}",
+                r.frames, r.drawn, r.dropped, r.dropRate(), r.draws,
+                r.latencyPercentileMs(0.50), r.latencyPercentileMs(0.95), r.latencyPercentileMs(1.0),
+                r.levelChanges);
+    }
+
+    /**
+     * @return true if the result regressed against the baseline metrics
+     */
+    private static boolean compare(String base, RenderLoopSimulator.Result r) {
+        boolean regressed = false;
+        double baseDropRate = number(base, "dropRate");
+        if (r.dropRate() > baseDropRate + DROP_RATE_TOLERANCE) {
+            System.err.printf(Locale.ROOT, "REGRESSION dropRate %.4f -> %.4f%n", baseDropRate, r.dropRate());
+            regressed = true;
+        }
+        double baseP95 = number(base, "latencyP95Ms");
+        double p95 = r.latencyPercentileMs(0.95);
+        if (p95 > baseP95 * (1.0 + LATENCY_TOLERANCE_RATIO) && p95 > baseP95 + LATENCY_TOLERANCE_MS) {
+            System.err.printf(Locale.ROOT, "REGRESSION latencyP95Ms %.3f -> %.3f%n", baseP95, p95);
+            regressed = true;
+        }
+        if (!regressed) {
+            System.err.println("OK no regression against baseline");
+        }
+        return regressed;
+    }
+
+    private static double number(String json, String key) {
+        Matcher matcher = Pattern.compile("\"" + key + "\"\\s*:\\s*(-?[0-9.eE+-]+)").matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("Baseline has no " + key);
+        }
+        return Double.parseDouble(matcher.group(1));
+    }
+}
@@ -0,0 +1,45 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.GovernorTrace;
+import com.autoai.watermarkvideoplayer.core.RenderGovernor;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Replays a recorded thermal/power/frame-cost trace (see {@link GovernorTrace} for the
+ * format) through {@link RenderGovernor} and prints each level change as a JSON line.
+ * <p>
+ * 用法：./gradlew :benchmark:governorReplay --args="trace.csv"
+ * <br>
+ * core/src/test/resources/governor/ 下的测试轨迹可直接作为输入。
+ */
+public final class GovernorTraceReplay {
+
+    private GovernorTraceReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: GovernorTraceReplay <trace.csv>");
+            System.exit(1);
+        }
+        RenderGovernor governor = new RenderGovernor();
+        long[] now = new long[1];
+        governor.setListener((from, to, reason) -> System.out.println(
+                "{\"timeMs\":" + now[0] / 1_000_000 + ",\"from\":\"" + from + "\",\"to\":\"" + to
+                        + "\",\"reason\":\"" + reason + "\"}"));
+
+        List<GovernorTrace.Event> events;
+        try (BufferedReader reader = new BufferedReader(new FileReader(args[0]))) {
+            events = GovernorTrace.read(reader);
+        }
+        for (GovernorTrace.Event event : events) {
+            now[0] = event.timeNanos;
+            event.applyTo(governor);
+        }
+        System.out.println("{\"final\":\"" + governor.getLevel() + "\"}");
+    }
+}
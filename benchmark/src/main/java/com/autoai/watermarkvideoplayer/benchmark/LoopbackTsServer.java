@@ -0,0 +1,118 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+
+/**
+ * Stand-in for the vehicle's live AVM feed: loops a .ts file over UDP or HTTP on loopback.
+ * <p>
+ * 用法：LoopbackTsServer &lt;file.ts&gt; udp|http &lt;port&gt; [bitrateKbps] [jitterMs]
+ * <br>
+ * 客户端地址：udp://127.0.0.1:port 或 http://127.0.0.1:port/live.ts
+ */
+public final class LoopbackTsServer {
+    private static final int PACKETS_PER_DATAGRAM = 7;
+    private static final int CHUNK_SIZE = 188 * PACKETS_PER_DATAGRAM;
+
+    private final RandomAccessFile file;
+    private final long bitsPerSecond;
+    private final int jitterMs;
+    private final Random random = new Random(0);
+
+    private LoopbackTsServer(String path, int bitrateKbps, int jitterMs) throws IOException {
+        this.file = new RandomAccessFile(path, "r");
+        this.bitsPerSecond = bitrateKbps * 1000L;
+        this.jitterMs = jitterMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: LoopbackTsServer <file.ts> udp|http <port> [bitrateKbps] [jitterMs]");
+            System.exit(1);
+        }
+        int port = Integer.parseInt(args[2]);
+        int bitrateKbps = args.length > 3 ? Integer.parseInt(args[3]) : 8000;
+        int jitterMs = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        LoopbackTsServer server = new LoopbackTsServer(args[0], bitrateKbps, jitterMs);
+        if ("udp".equals(args[1])) {
+            server.serveUdp(port);
+        } else {
+            server.serveHttp(port);
+        }
+    }
+
+    private void serveUdp(int port) throws IOException, InterruptedException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            byte[] chunk = new byte[CHUNK_SIZE];
+            DatagramPacket packet = new DatagramPacket(chunk, chunk.length, loopback, port);
+            System.out.println("Streaming to udp://127.0.0.1:" + port);
+            stream(chunk, length -> {
+                packet.setLength(length);
+                socket.send(packet);
+            });
+        }
+    }
+
+    private void serveHttp(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "video/mp2t");
+            exchange.sendResponseHeaders(200, 0);
+            byte[] chunk = new byte[CHUNK_SIZE];
+            try (OutputStream out = exchange.getResponseBody()) {
+                stream(chunk, length -> {
+                    out.write(chunk, 0, length);
+                    out.flush();
+                });
+            } catch (IOException | InterruptedException e) {
+                System.out.println("Client disconnected: " + e.getMessage());
+            }
+        });
+        server.start();
+        System.out.println("Serving http://127.0.0.1:" + port + "/live.ts");
+    }
+
+    private interface ChunkSink {
+        void write(int length) throws IOException;
+    }
+
+    /**
+     * Loop the file forever, pacing chunks to the configured bitrate plus optional jitter
+     */
+    private void stream(byte[] chunk, ChunkSink sink) throws IOException, InterruptedException {
+        long chunkNanos = CHUNK_SIZE * 8L * 1_000_000_000L / bitsPerSecond;
+        long nextNanos = System.nanoTime();
+        long position = 0;
+        while (true) {
+            int read;
+            synchronized (file) {
+                file.seek(position);
+                read = file.read(chunk);
+            }
+            if (read <= 0) {
+                position = 0;
+                continue;
+            }
+            position += read;
+
+            nextNanos += chunkNanos;
+            long sleepNanos = nextNanos - System.nanoTime();
+            if (jitterMs > 0) {
+                sleepNanos += random.nextInt(jitterMs) * 1_000_000L;
+            }
+            if (sleepNanos > 0) {
+                Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+            }
+            sink.write(read);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.autoai.watermarkvideoplayer.benchmark;
+
+import com.autoai.watermarkvideoplayer.core.FrameScheduler;
+import com.autoai.watermarkvideoplayer.core.FrameTrace;
+import com.autoai.watermarkvideoplayer.core.RenderGovernor;
+import com.autoai.watermarkvideoplayer.core.RenderLevel;
+import com.autoai.watermarkvideoplayer.core.StreamSyncController;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event model of the GLCameraVideoView render loop driven by a recorded
+ * {@link FrameTrace} and a fake clock.
+ * <p>
+ * 使用与应用相同的 FrameScheduler / RenderGovernor，模拟：
+ * <ul>
+ *     <li>requestRender合并：GL线程忙时多次请求只产生一次绘制</li>
+ *     <li>绘制耗时按录制的DRAW事件依次取用，交换缓冲区对齐到vsync</li>
+ *     <li>帧在上屏前被新帧取代计为丢帧，上屏帧记录到达→交换的延迟</li>
+ * </ul>
+ */
+final class RenderLoopSimulator {
+    private static final int FRAME = 0;
+    private static final int LAYOUT = 1;
+    private static final int DEFERRED = 2;
+    private static final int DRAW = 3;
+    private static final long DEFAULT_DRAW_COST_NANOS = 2_000_000L;
+
+    static final class Result {
+        long frames;
+        long drawn;
+        long dropped;
+        long draws;
+        long levelChanges;
+        long[] latencies = new long[0];
+
+        double dropRate() {
+            return frames == 0 ? 0.0 : (double) dropped / frames;
+        }
+
+        double latencyPercentileMs(double percentile) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long seq;
+        final int kind;
+        final int index;
+
+        Event(long time, long seq, int kind, int index) {
+            this.time = time;
+            this.seq = seq;
+            this.kind = kind;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+
+    private final FrameTrace trace;
+    private final PriorityQueue<Event> queue = new PriorityQueue<>();
+    private final FrameScheduler scheduler =
+            new FrameScheduler(RenderLevel.FULL.pacingIntervalNanos());
+    private final RenderGovernor governor = new RenderGovernor();
+    private final long[] costs;
+    private int costIndex = 0;
+    private long seq = 0;
+
+    private final boolean[] pending = new boolean[StreamSyncController.MAX_STREAMS];
+    private final long[] arrivalNanos = new long[StreamSyncController.MAX_STREAMS];
+    private boolean renderRequested = false;
+    private long glFreeNanos = Long.MIN_VALUE;
+    private long lastSwapNanos = Long.MIN_VALUE / 2;
+
+    private final Result result = new Result();
+    private long[] latencies = new long[1024];
+    private int latencyCount = 0;
+
+    RenderLoopSimulator(FrameTrace trace) {
+        this.trace = trace;
+        int drawEvents = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getType(i) == FrameTrace.DRAW) {
+                drawEvents++;
+            }
+        }
+        costs = new long[drawEvents];
+        for (int i = 0, c = 0; i < trace.size(); i++) {
+            if (trace.getType(i) == FrameTrace.DRAW) {
+                costs[c++] = trace.getValue(i);
+            }
+        }
+        governor.setListener((from, to, reason) -> {
+            scheduler.setMinFrameIntervalNanos(to.pacingIntervalNanos());
+            result.levelChanges++;
+        });
+    }
+
+    Result run() {
+        for (int i = 0; i < trace.size(); i++) {
+            byte type = trace.getType(i);
+            if (type == FrameTrace.FRAME) {
+                push(trace.getTimeNanos(i), FRAME, i);
+            } else if (type == FrameTrace.LAYOUT) {
+                push(trace.getTimeNanos(i), LAYOUT, i);
+            }
+        }
+        Event event;
+        while ((event = queue.poll()) != null) {
+            switch (event.kind) {
+                case FRAME:
+                    onFrame(event.time, trace.getStream(event.index));
+                    break;
+                case LAYOUT:
+                    // 布局变化与应用一样只触发一次重绘，区域内容不影响调度
+                    requestRender(event.time);
+                    break;
+                case DEFERRED:
+                    scheduler.onDeferredDraw();
+                    requestRender(event.time);
+                    break;
+                default:
+                    onDraw(event.time);
+                    break;
+            }
+        }
+        result.latencies = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    private void onFrame(long now, int stream) {
+        result.frames++;
+        if (pending[stream]) {
+            // 上一帧尚未上屏即被取代
+            result.dropped++;
+        }
+        pending[stream] = true;
+        arrivalNanos[stream] = now;
+
+        long wait = scheduler.onFrameAvailable(now);
+        if (wait == FrameScheduler.DRAW_NOW) {
+            requestRender(now);
+        } else if (wait != FrameScheduler.ALREADY_SCHEDULED) {
+            // 与 postDelayed(deferredDraw, waitNanos / 1_000_000 + 1) 的毫秒取整一致
+            push(now + (wait / 1_000_000 + 1) * 1_000_000, DEFERRED, -1);
+        }
+    }
+
+    private void requestRender(long now) {
+        if (renderRequested) {
+            return;
+        }
+        renderRequested = true;
+        push(Math.max(now, glFreeNanos), DRAW, -1);
+    }
+
+    private void onDraw(long now) {
+        renderRequested = false;
+        result.draws++;
+        scheduler.onDrawStarted(now);
+        long cost = costs.length == 0 ? DEFAULT_DRAW_COST_NANOS : costs[costIndex++ % costs.length];
+        long done = now + cost;
+        long vsync = trace.getVsyncNanos();
+        long swap = done;
+        if (vsync > 0) {
+            // 交换缓冲区阻塞到下一个vsync，且每个vsync最多上屏一帧
+            swap = Math.max((done + vsync - 1) / vsync * vsync, lastSwapNanos + vsync);
+        }
+        lastSwapNanos = swap;
+        glFreeNanos = swap;
+
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i]) {
+                pending[i] = false;
+                result.drawn++;
+                addLatency(swap - arrivalNanos[i]);
+            }
+        }
+        governor.onFrameCost(cost, done);
+    }
+
+    private void addLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencyCount * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    private void push(long time, int kind, int index) {
+        queue.add(new Event(time, seq++, kind, index));
+    }
+}
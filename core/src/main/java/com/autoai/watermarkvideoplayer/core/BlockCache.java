@@ -0,0 +1,289 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LRU cache of aligned blocks over a slow {@link BlockSource}, with sequential read-ahead
+ * on a background thread.
+ * <p>
+ * 读取按块对齐（默认256KB），顺序访问时后台预读后续块；loopAware时预读到文件末尾后
+ * 回绕预读开头，使循环播放（setLooping）重新开始时不必等待SD卡。
+ * 同一块正在加载时，读者等待该次加载而不是重复读取。块缓冲区在淘汰后复用。
+ */
+public class BlockCache implements Closeable {
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final int DEFAULT_CAPACITY_BLOCKS = 32;
+    public static final int DEFAULT_READ_AHEAD_BLOCKS = 4;
+
+    private static final class Block {
+        final long index;
+        byte[] data;
+        int length;
+        boolean loading = true;
+        int readers = 0;
+        IOException error;
+
+        Block(long index) {
+            this.index = index;
+        }
+    }
+
+    private final BlockSource source;
+    private final long size;
+    private final long blockCount;
+    private final int blockSize;
+    private final int capacity;
+    private final int readAhead;
+    private final boolean loopAware;
+
+    private final LinkedHashMap<Long, Block> blocks = new LinkedHashMap<>(64, 0.75f, true);
+    private final ArrayDeque<byte[]> pool = new ArrayDeque<>();
+    private final ExecutorService prefetcher;
+    private long lastIndex = -2;
+    private boolean closed = false;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long inflightWaits = 0;
+    private long prefetches = 0;
+    private long sourceBytes = 0;
+
+    public BlockCache(BlockSource source) throws IOException {
+        this(source, DEFAULT_BLOCK_SIZE, DEFAULT_CAPACITY_BLOCKS, DEFAULT_READ_AHEAD_BLOCKS, true);
+    }
+
+    public BlockCache(BlockSource source, int blockSize, int capacity, int readAhead,
+                      boolean loopAware) throws IOException {
+        if (blockSize <= 0 || readAhead < 0 || capacity < readAhead + 2) {
+            throw new IllegalArgumentException("capacity must exceed readAhead + 1");
+        }
+        this.source = source;
+        this.size = source.size();
+        this.blockSize = blockSize;
+        this.blockCount = (size + blockSize - 1) / blockSize;
+        this.capacity = capacity;
+        this.readAhead = readAhead;
+        this.loopAware = loopAware;
+        this.prefetcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "BlockCache-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Read up to length bytes at position, same contract as MediaDataSource.readAt
+     *
+     * @return bytes read, or -1 at end of source
+     */
+    public int readAt(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (position >= size) {
+            return -1;
+        }
+        int total = 0;
+        long index = -1;
+        while (total < length && position < size) {
+            index = position / blockSize;
+            int inBlock = (int) (position - index * blockSize);
+            int copied = copyFromBlock(index, inBlock, buffer, offset + total, length - total);
+            if (copied <= 0) {
+                break;
+            }
+            total += copied;
+            position += copied;
+        }
+        if (index >= 0) {
+            scheduleReadAhead(index);
+        }
+        // 文件在打开后变短时首块可能读不到数据，按结尾处理
+        return total == 0 && length > 0 ? -1 : total;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Reads that found their block still being prefetched and waited for it */
+    public synchronized long getInflightWaits() {
+        return inflightWaits;
+    }
+
+    public synchronized long getPrefetches() {
+        return prefetches;
+    }
+
+    public synchronized long getSourceBytes() {
+        return sourceBytes;
+    }
+
+    public synchronized int getCachedBlocks() {
+        return blocks.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            blocks.clear();
+            pool.clear();
+            notifyAll();
+        }
+        prefetcher.shutdownNow();
+        source.close();
+    }
+
+    private int copyFromBlock(long index, int inBlock, byte[] dst, int dstOffset, int length)
+            throws IOException {
+        Block block;
+        boolean load = false;
+        synchronized (this) {
+            block = blocks.get(index);
+            if (block == null) {
+                misses++;
+                block = insert(index);
+                load = true;
+            } else if (block.loading) {
+                inflightWaits++;
+            } else {
+                hits++;
+            }
+            block.readers++;
+        }
+
+        if (load) {
+            load(block);
+        }
+
+        synchronized (this) {
+            try {
+                return copyLoaded(block, index, inBlock, dst, dstOffset, length);
+            } finally {
+                block.readers--;
+            }
+        }
+    }
+
+    /**
+     * Wait for the block to finish loading and copy from it; caller holds lock
+     */
+    private int copyLoaded(Block block, long index, int inBlock, byte[] dst, int dstOffset, int length)
+            throws IOException {
+        while (block.loading && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for block " + index);
+            }
+        }
+        if (block.error != null) {
+            throw block.error;
+        }
+        if (closed) {
+            throw new IOException("BlockCache closed");
+        }
+        // 在锁内拷贝，读者计数防止缓冲区被淘汰后复用
+        int count = Math.min(length, block.length - inBlock);
+        if (count > 0) {
+            System.arraycopy(block.data, inBlock, dst, dstOffset, count);
+        }
+        return count;
+    }
+
+    private void scheduleReadAhead(long index) {
+        synchronized (this) {
+            boolean sequential = index == lastIndex || index == lastIndex + 1;
+            lastIndex = index;
+            if (!sequential || closed) {
+                return;
+            }
+            for (int i = 1; i <= readAhead; i++) {
+                long next = index + i;
+                if (next >= blockCount) {
+                    if (!loopAware) {
+                        break;
+                    }
+                    // 文件块数少于预读深度时可能绕多圈，回到当前块即停止
+                    next %= blockCount;
+                    if (next == index) {
+                        break;
+                    }
+                }
+                if (blocks.containsKey(next)) {
+                    continue;
+                }
+                final Block block = insert(next);
+                prefetches++;
+                prefetcher.execute(() -> load(block));
+            }
+        }
+    }
+
+    /**
+     * Insert a loading placeholder and evict least recently used loaded blocks; caller holds lock
+     */
+    private Block insert(long index) {
+        Block block = new Block(index);
+        blocks.put(index, block);
+        Iterator<Map.Entry<Long, Block>> it = blocks.entrySet().iterator();
+        while (blocks.size() > capacity && it.hasNext()) {
+            Block eldest = it.next().getValue();
+            if (eldest.loading || eldest.readers > 0) {
+                continue;
+            }
+            it.remove();
+            pool.push(eldest.data);
+        }
+        return block;
+    }
+
+    private void load(Block block) {
+        byte[] data;
+        synchronized (this) {
+            data = pool.isEmpty() ? new byte[blockSize] : pool.pop();
+        }
+        int length = 0;
+        IOException error = null;
+        try {
+            long position = block.index * blockSize;
+            int want = (int) Math.min(blockSize, size - position);
+            while (length < want) {
+                int read = source.read(position + length, data, length, want - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (this) {
+            block.data = data;
+            block.length = length;
+            block.error = error;
+            block.loading = false;
+            sourceBytes += length;
+            if (error != null) {
+                blocks.remove(block.index);
+                pool.push(data);
+            }
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random-access byte source read by {@link BlockCache}
+ */
+public interface BlockSource extends Closeable {
+    long size() throws IOException;
+
+    /**
+     * Read up to length bytes at position
+     *
+     * @return bytes read, or -1 at end of source
+     */
+    int read(long position, byte[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,35 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Camera regions inside a 4-in-1 AVM frame
+ */
+public enum CameraPosition {
+    ALL(0.0f, 0.0f, 1.0f, 1.0f),
+    TOP_LEFT(0.0f, 0.0f, 0.5f, 0.5f), // x, y, width, height (归一化坐标)
+    TOP_RIGHT(0.5f, 0.0f, 0.5f, 0.5f),
+    BOTTOM_LEFT(0.0f, 0.5f, 0.5f, 0.5f),
+    BOTTOM_RIGHT(0.5f, 0.5f, 0.5f, 0.5f);
+
+    public final float x, y, width, height;
+
+    CameraPosition(float x, float y, float width, float height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Parse a persisted position name, falling back to ALL for unknown values
+     */
+    public static CameraPosition fromName(String name) {
+        if (name == null) {
+            return ALL;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return ALL;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@link BlockSource} backed by positional FileChannel reads, safe for concurrent callers
+ */
+public class FileBlockSource implements BlockSource {
+    private final Closeable file;
+    private final FileChannel channel;
+
+    public FileBlockSource(String path) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(path, "r");
+        file = raf;
+        channel = raf.getChannel();
+    }
+
+    /**
+     * Read through an already open descriptor, e.g. one opened by a content provider;
+     * it must refer to a regular file so that positional reads work. Closing this source
+     * closes the stream
+     */
+    public FileBlockSource(FileInputStream in) {
+        file = in;
+        channel = in.getChannel();
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total == 0 && length > 0 ? -1 : total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
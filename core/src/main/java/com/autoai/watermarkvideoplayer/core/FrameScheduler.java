@@ -0,0 +1,65 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Decides whether a newly available decoder frame is drawn immediately or latched and
+ * drawn later under the frame rate cap.
+ * <p>
+ * 从GLCameraVideoView的onFrameAvailable逻辑中抽出，时间由调用方传入，
+ * 以便在JVM上用回放轨迹和假时钟重现调度行为。
+ */
+public class FrameScheduler {
+    /** Request a render now */
+    public static final long DRAW_NOW = 0;
+    /** Latch the frame only; a deferred draw is already scheduled */
+    public static final long ALREADY_SCHEDULED = -1;
+
+    private long minFrameIntervalNanos;
+    private long lastDrawNanos = Long.MIN_VALUE / 2;
+    private boolean drawScheduled = false;
+
+    /**
+     * @param minFrameIntervalNanos 0 draws every frame immediately
+     */
+    public FrameScheduler(long minFrameIntervalNanos) {
+        this.minFrameIntervalNanos = minFrameIntervalNanos;
+    }
+
+    public synchronized void setMinFrameIntervalNanos(long minFrameIntervalNanos) {
+        this.minFrameIntervalNanos = minFrameIntervalNanos;
+    }
+
+    public synchronized long getMinFrameIntervalNanos() {
+        return minFrameIntervalNanos;
+    }
+
+    /**
+     * @return {@link #DRAW_NOW}, {@link #ALREADY_SCHEDULED}, or the delay in nanoseconds
+     * after which the caller must schedule one draw (and latch the frame meanwhile)
+     */
+    public synchronized long onFrameAvailable(long nowNanos) {
+        if (minFrameIntervalNanos <= 0) {
+            // 不限帧率
+            return DRAW_NOW;
+        }
+        long waitNanos = lastDrawNanos + minFrameIntervalNanos - nowNanos;
+        if (waitNanos <= 0) {
+            return DRAW_NOW;
+        }
+        if (drawScheduled) {
+            return ALREADY_SCHEDULED;
+        }
+        drawScheduled = true;
+        return waitNanos;
+    }
+
+    /**
+     * The draw scheduled by {@link #onFrameAvailable(long)} is being requested
+     */
+    public synchronized void onDeferredDraw() {
+        drawScheduled = false;
+    }
+
+    public synchronized void onDrawStarted(long nowNanos) {
+        lastDrawNanos = nowNanos;
+    }
+}
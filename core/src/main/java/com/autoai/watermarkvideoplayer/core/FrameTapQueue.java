@@ -0,0 +1,193 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Bounded hand-off between the render thread, which produces frames for a tap, and the
+ * tap's consumer thread.
+ * <p>
+ * 背压策略：
+ * <ul>
+ *     <li>队列满时丢弃最旧的帧（由调用方关闭返回的对象），消费者总是拿到最新画面</li>
+ *     <li>已提交但尚未入队的帧达到 maxPending 时，渲染线程跳过本帧而不是等待缓冲区，
+ *     慢消费者不会阻塞播放</li>
+ * </ul>
+ * 所有计数按消费者独立统计。
+ */
+public class FrameTapQueue<T> {
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final Object[] ring;
+    private final int maxPending;
+    private int head = 0;
+    private int count = 0;
+    private int pending = 0;
+    private boolean closed = false;
+
+    private long producedFrames = 0;
+    private long skippedFrames = 0;
+    private long droppedFrames = 0;
+    private long deliveredFrames = 0;
+
+    // 按约1秒窗口统计交付帧率
+    private long windowStartNanos = -1;
+    private long windowFrames = 0;
+    private float deliveredFps = 0.0f;
+
+    public FrameTapQueue(int capacity, int maxPending) {
+        if (capacity < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("capacity and maxPending must be positive");
+        }
+        this.ring = new Object[capacity];
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Render thread: reserve a slot for a new frame
+     *
+     * @return false if the frame must be skipped because earlier ones are still in flight
+     */
+    public synchronized boolean tryBeginFrame() {
+        if (closed || pending >= maxPending) {
+            skippedFrames++;
+            return false;
+        }
+        pending++;
+        producedFrames++;
+        return true;
+    }
+
+    /**
+     * Render thread: the reserved frame was not submitted after all
+     */
+    public synchronized void cancelFrame() {
+        if (pending > 0) {
+            pending--;
+            producedFrames--;
+        }
+    }
+
+    /**
+     * Queue a submitted frame, evicting the oldest one when full
+     *
+     * @return the evicted frame (or item itself after {@link #close()}), which the caller
+     * must release; null if nothing was evicted
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T offer(T item) {
+        if (pending > 0) {
+            pending--;
+        }
+        if (closed) {
+            return item;
+        }
+        T evicted = null;
+        if (count == ring.length) {
+            evicted = (T) ring[head];
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            count--;
+            droppedFrames++;
+        }
+        ring[(head + count) % ring.length] = item;
+        count++;
+        notifyAll();
+        return evicted;
+    }
+
+    /**
+     * Consumer thread: wait up to maxWaitMs for the oldest queued frame
+     *
+     * @return null on timeout or after {@link #close()}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T take(long maxWaitMs, long nowNanos) throws InterruptedException {
+        if (count == 0 && !closed) {
+            wait(maxWaitMs);
+        }
+        if (count == 0 || closed) {
+            return null;
+        }
+        T item = (T) ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        deliveredFrames++;
+        countDelivery(nowNanos);
+        return item;
+    }
+
+    /**
+     * Stop accepting frames and wake the consumer; queued frames are returned by
+     * {@link #drain()}
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Remove one queued frame without counting it as delivered, for release after close
+     *
+     * @return null when empty
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T drain() {
+        if (count == 0) {
+            return null;
+        }
+        T item = (T) ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        return item;
+    }
+
+    /** Frames rendered for this consumer */
+    public synchronized long getProducedFrames() {
+        return producedFrames;
+    }
+
+    /** Frames not rendered because the consumer side had not caught up */
+    public synchronized long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /** Frames rendered but evicted from the queue before the consumer took them */
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public synchronized long getDeliveredFrames() {
+        return deliveredFrames;
+    }
+
+    /**
+     * Delivered frames per second over the last full window, 0 once delivery stalls
+     */
+    public synchronized float getDeliveredFps(long nowNanos) {
+        if (windowStartNanos >= 0 && nowNanos - windowStartNanos >= 2 * RATE_WINDOW_NANOS) {
+            return 0.0f;
+        }
+        return deliveredFps;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    private void countDelivery(long nowNanos) {
+        if (windowStartNanos < 0) {
+            windowStartNanos = nowNanos;
+        }
+        windowFrames++;
+        long elapsed = nowNanos - windowStartNanos;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            deliveredFps = windowFrames * 1_000_000_000.0f / elapsed;
+            windowStartNanos = nowNanos;
+            windowFrames = 0;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compact in-memory recording of render-loop events for offline replay.
+ * <p>
+ * 记录三类事件：帧可用（onFrameAvailable）、布局变化（摄像头位置/水印高度）、
+ * 绘制耗时（onDrawFrame）。录制时只写入预分配数组，容量用尽后停止记录并标记截断，
+ * 不在渲染线程做I/O；停止后再 {@link #writeTo(OutputStream)}。
+ * <p>
+ * 文件格式：magic "FTRC"、版本、vsync周期、事件数，之后每个事件为
+ * type(1) + stream(1) + zigzag变长编码的时间差 + zigzag变长编码的值。
+ */
+public class FrameTrace {
+    public static final byte FRAME = 1;
+    public static final byte LAYOUT = 2;
+    public static final byte DRAW = 3;
+    /** Largest recording, about 36MB of event arrays; readFrom rejects larger counts */
+    public static final int MAX_CAPACITY = 2_000_000;
+
+    private static final int MAGIC = 0x46545243;
+    private static final int VERSION = 1;
+
+    private final long vsyncNanos;
+    private final byte[] types;
+    private final byte[] streams;
+    private final long[] times;
+    private final long[] values;
+    private int count = 0;
+    private boolean truncated = false;
+
+    public FrameTrace(int capacity, long vsyncNanos) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be in [0, " + MAX_CAPACITY + "]");
+        }
+        this.vsyncNanos = vsyncNanos;
+        types = new byte[capacity];
+        streams = new byte[capacity];
+        times = new long[capacity];
+        values = new long[capacity];
+    }
+
+    public synchronized void frameAvailable(int stream, long nowNanos) {
+        append(FRAME, stream, nowNanos, 0);
+    }
+
+    public synchronized void layout(CameraPosition position, float watermarkHeight, long nowNanos) {
+        append(LAYOUT, position.ordinal(), nowNanos, Float.floatToIntBits(watermarkHeight));
+    }
+
+    public synchronized void draw(long startNanos, long costNanos) {
+        append(DRAW, 0, startNanos, costNanos);
+    }
+
+    public long getVsyncNanos() {
+        return vsyncNanos;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    public synchronized byte getType(int index) {
+        return types[index];
+    }
+
+    public synchronized int getStream(int index) {
+        return streams[index];
+    }
+
+    public synchronized long getTimeNanos(int index) {
+        return times[index];
+    }
+
+    /** Draw cost for DRAW events, float bits of the watermark height for LAYOUT events */
+    public synchronized long getValue(int index) {
+        return values[index];
+    }
+
+    public synchronized CameraPosition getLayoutPosition(int index) {
+        return CameraPosition.values()[streams[index]];
+    }
+
+    public synchronized float getLayoutWatermarkHeight(int index) {
+        return Float.intBitsToFloat((int) values[index]);
+    }
+
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(vsyncNanos);
+        data.writeBoolean(truncated);
+        data.writeInt(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            data.writeByte(types[i]);
+            data.writeByte(streams[i]);
+            // 绘制事件按开始时间记录，可能早于前一事件，时间差需带符号
+            writeVarLong(data, zigzag(times[i] - previous));
+            writeVarLong(data, zigzag(values[i]));
+            previous = times[i];
+        }
+        data.flush();
+    }
+
+    public static FrameTrace readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a frame trace");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported frame trace version " + version);
+        }
+        long vsync = data.readLong();
+        boolean truncated = data.readBoolean();
+        int count = data.readInt();
+        // 事件数决定预分配数组大小，损坏的文件不能触发超大分配
+        if (count < 0 || count > MAX_CAPACITY) {
+            throw new IOException("Corrupt frame trace: " + count + " events");
+        }
+        FrameTrace trace = new FrameTrace(count, vsync);
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            byte type = data.readByte();
+            int stream = data.readByte();
+            time += unzigzag(readVarLong(data));
+            trace.append(type, stream, time, unzigzag(readVarLong(data)));
+        }
+        trace.truncated = truncated;
+        return trace;
+    }
+
+    private void append(byte type, int stream, long timeNanos, long value) {
+        if (count == types.length) {
+            truncated = true;
+            return;
+        }
+        types[count] = type;
+        streams[count] = (byte) stream;
+        times[count] = timeNanos;
+        values[count] = value;
+        count++;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint in frame trace");
+    }
+}
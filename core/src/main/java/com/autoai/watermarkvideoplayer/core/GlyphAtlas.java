@@ -0,0 +1,86 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Grid layout of a monospace ASCII glyph atlas (' ' .. '~').
+ * <p>
+ * 图集纹理只在Surface创建时生成一次，字符按行优先排列在固定大小的格子中；
+ * 图集外的字符显示为 '?'。
+ */
+public class GlyphAtlas {
+    public static final char FIRST_CHAR = ' ';
+    public static final char LAST_CHAR = '~';
+    public static final int GLYPH_COUNT = LAST_CHAR - FIRST_CHAR + 1;
+    public static final int COLUMNS = 16;
+    public static final int ROWS = (GLYPH_COUNT + COLUMNS - 1) / COLUMNS;
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int textureWidth;
+    private final int textureHeight;
+
+    public GlyphAtlas(int cellWidth, int cellHeight) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.textureWidth = nextPowerOfTwo(COLUMNS * cellWidth);
+        this.textureHeight = nextPowerOfTwo(ROWS * cellHeight);
+    }
+
+    public int getCellWidth() {
+        return cellWidth;
+    }
+
+    public int getCellHeight() {
+        return cellHeight;
+    }
+
+    public int getTextureWidth() {
+        return textureWidth;
+    }
+
+    public int getTextureHeight() {
+        return textureHeight;
+    }
+
+    /**
+     * Index of the glyph cell used to draw c
+     */
+    public static int glyphIndex(char c) {
+        if (c < FIRST_CHAR || c > LAST_CHAR) {
+            c = '?';
+        }
+        return c - FIRST_CHAR;
+    }
+
+    /**
+     * Pixel x of the cell's left edge inside the atlas texture
+     */
+    public int cellX(int glyphIndex) {
+        return (glyphIndex % COLUMNS) * cellWidth;
+    }
+
+    /**
+     * Pixel y of the cell's top edge inside the atlas texture
+     */
+    public int cellY(int glyphIndex) {
+        return (glyphIndex / COLUMNS) * cellHeight;
+    }
+
+    /**
+     * Fill {u0, v0, u1, v1} for c, with v growing downwards as in the atlas bitmap
+     */
+    public void fillUv(char c, float[] out) {
+        int index = glyphIndex(c);
+        out[0] = (float) cellX(index) / textureWidth;
+        out[1] = (float) cellY(index) / textureHeight;
+        out[2] = (float) (cellX(index) + cellWidth) / textureWidth;
+        out[3] = (float) (cellY(index) + cellHeight) / textureHeight;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+}
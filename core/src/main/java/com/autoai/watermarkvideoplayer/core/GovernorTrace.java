@@ -0,0 +1,104 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded thermal/power/frame-cost inputs of a {@link RenderGovernor}, for offline replay.
+ * <p>
+ * 轨迹格式（CSV，每行一条，#开头为注释）：timeMs,type,value
+ * <ul>
+ *     <li>thermal,&lt;0-6&gt; — PowerManager温控状态</li>
+ *     <li>battery,&lt;0|1&gt; — 是否电池供电</li>
+ *     <li>frame,&lt;costMicros&gt; — 单帧渲染耗时</li>
+ *     <li>tick,0 — 无输入时的周期评估</li>
+ * </ul>
+ */
+public final class GovernorTrace {
+    public static final int TYPE_THERMAL = 0;
+    public static final int TYPE_BATTERY = 1;
+    public static final int TYPE_FRAME = 2;
+    public static final int TYPE_TICK = 3;
+
+    public static final class Event {
+        public final long timeNanos;
+        public final int type;
+        public final long value;
+
+        Event(long timeNanos, int type, long value) {
+            this.timeNanos = timeNanos;
+            this.type = type;
+            this.value = value;
+        }
+
+        public void applyTo(RenderGovernor governor) {
+            switch (type) {
+                case TYPE_THERMAL:
+                    governor.onThermalStatus((int) value, timeNanos);
+                    break;
+                case TYPE_BATTERY:
+                    governor.onPowerSource(value != 0, timeNanos);
+                    break;
+                case TYPE_FRAME:
+                    governor.onFrameCost(value * 1000, timeNanos);
+                    break;
+                default:
+                    governor.evaluate(timeNanos);
+                    break;
+            }
+        }
+    }
+
+    private GovernorTrace() {
+    }
+
+    /**
+     * Parse a whole trace
+     *
+     * @throws IOException on a malformed line, with its line number
+     */
+    public static List<Event> read(BufferedReader reader) throws IOException {
+        List<Event> events = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IOException("Line " + lineNumber + ": expected timeMs,type,value");
+            }
+            int type = parseType(fields[1].trim());
+            if (type < 0) {
+                throw new IOException("Line " + lineNumber + ": unknown type " + fields[1].trim());
+            }
+            try {
+                long timeMs = Long.parseLong(fields[0].trim());
+                events.add(new Event(timeMs * 1_000_000, type, Long.parseLong(fields[2].trim())));
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private static int parseType(String name) {
+        switch (name) {
+            case "thermal":
+                return TYPE_THERMAL;
+            case "battery":
+                return TYPE_BATTERY;
+            case "frame":
+                return TYPE_FRAME;
+            case "tick":
+                return TYPE_TICK;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of batch indexing jobs, so that work interrupted by a restart is
+ * resumed and finished files are not indexed again.
+ * <p>
+ * 每行一条记录：状态\t文件大小\t修改时间\t路径，后写的记录覆盖先写的。
+ * 文件大小或修改时间变化视为新文件。末尾没有换行符的行是写入时被杀进程留下的，
+ * 加载时忽略，并在下次追加前截掉，以免新记录接在它后面；记录数远多于文件数时压缩重写。
+ */
+public class IndexJournal {
+    public static final int STATE_QUEUED = 'Q';
+    public static final int STATE_DONE = 'D';
+    public static final int STATE_FAILED = 'F';
+
+    private static final int COMPACT_MIN_RECORDS = 64;
+
+    private static final class Entry {
+        final long size;
+        final long lastModified;
+        final int state;
+
+        Entry(long size, long lastModified, int state) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.state = state;
+        }
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private Writer writer;
+    private boolean loaded = false;
+    private boolean closed = false;
+
+    public IndexJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replay the journal; later calls do nothing
+     */
+    public synchronized void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        byte[] data;
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            data = bytes.toByteArray();
+        } catch (FileNotFoundException e) {
+            // 首次运行
+            return;
+        }
+        int records = 0;
+        // 只解析以换行结尾的完整行
+        for (int start = 0, end; (end = indexOf(data, (byte) '\n', start)) >= 0; start = end + 1) {
+            if (parse(new String(data, start, end - start, StandardCharsets.UTF_8))) {
+                records++;
+            }
+        }
+        if (records >= COMPACT_MIN_RECORDS && records > 2 * entries.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * @return the recorded state for this version of the file, or 0 if unknown
+     */
+    public synchronized int getState(String path, long size, long lastModified) {
+        Entry entry = entries.get(path);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            return 0;
+        }
+        return entry.state;
+    }
+
+    /**
+     * Paths queued but not finished when the journal was last written, in queue order
+     */
+    public synchronized List<String> getUnfinished() {
+        List<String> paths = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (e.getValue().state == STATE_QUEUED) {
+                paths.add(e.getKey());
+            }
+        }
+        return paths;
+    }
+
+    public synchronized void record(String path, long size, long lastModified, int state)
+            throws IOException {
+        if (closed) {
+            return;
+        }
+        entries.remove(path);
+        entries.put(path, new Entry(size, lastModified, state));
+        if (writer == null) {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+            truncateTornLine();
+            writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8);
+        }
+        writeRecord(writer, path, entries.get(path));
+        // 每条记录立即写出，进程被杀时最多丢失正在写的一行
+        writer.flush();
+    }
+
+    /**
+     * Flush and close; later records are ignored
+     */
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Cut an unterminated last line so the next record starts on a line of its own
+     */
+    private void truncateTornLine() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long length = raf.length();
+            long end = length;
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < length) {
+                raf.setLength(end);
+            }
+        }
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean parse(String line) {
+        // 路径放在最后，可以包含制表符以外的任意字符
+        int a = line.indexOf('\t');
+        int b = a < 0 ? -1 : line.indexOf('\t', a + 1);
+        int c = b < 0 ? -1 : line.indexOf('\t', b + 1);
+        if (a != 1 || c < 0 || c == line.length() - 1) {
+            return false;
+        }
+        int state = line.charAt(0);
+        if (state != STATE_QUEUED && state != STATE_DONE && state != STATE_FAILED) {
+            return false;
+        }
+        try {
+            long size = Long.parseLong(line.substring(a + 1, b));
+            long lastModified = Long.parseLong(line.substring(b + 1, c));
+            String path = line.substring(c + 1);
+            entries.remove(path);
+            entries.put(path, new Entry(size, lastModified, state));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void compact() throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                writeRecord(out, e.getKey(), e.getValue());
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    private static void writeRecord(Writer out, String path, Entry entry) throws IOException {
+        out.write((char) entry.state);
+        out.write('\t');
+        out.write(Long.toString(entry.size));
+        out.write('\t');
+        out.write(Long.toString(entry.lastModified));
+        out.write('\t');
+        out.write(path);
+        out.write('\n');
+    }
+}
@@ -0,0 +1,310 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Background scheduler that prepares every segment of a recording folder (keyframe scan,
+ * thumbnails, metadata) with bounded parallelism.
+ * <p>
+ * 调度规则：
+ * <ul>
+ *     <li>当前打开的文件优先，其余按入队顺序</li>
+ *     <li>每个任务入队、完成、失败都写入 {@link IndexJournal}，重启后 {@link #resume()}
+ *     重新排入未完成的任务</li>
+ *     <li>日志记为完成且结果缓存仍在的文件直接跳过；同一版本失败过的文件不再重试</li>
+ * </ul>
+ * 工作线程为最低优先级，{@link #shutdown()} 中断正在执行的任务，它们在日志中保持未完成状态。
+ */
+public class IndexScheduler {
+    private static final int PRIORITY_NORMAL = 0;
+    private static final int PRIORITY_OPEN_FILE = 1;
+
+    public static final class Job implements Comparable<Job> {
+        public final File file;
+        public final long size;
+        public final long lastModified;
+        int priority;
+        final long sequence;
+
+        Job(File file, long size, long lastModified, long sequence) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public interface Task {
+        /**
+         * @return true if results for this exact file version are already cached
+         */
+        boolean isCached(Job job);
+
+        /**
+         * Index one file on a worker thread; should stop early when interrupted
+         */
+        void run(Job job) throws Exception;
+    }
+
+    public interface Listener {
+        /**
+         * Called on the worker thread after each job
+         *
+         * @param error null on success
+         */
+        void onJobFinished(Job job, Exception error, int remaining);
+
+        void onJournalError(IOException e);
+    }
+
+    private final Task task;
+    private final IndexJournal journal;
+    private final Thread[] workers;
+    private final PriorityQueue<Job> queue = new PriorityQueue<>();
+    // 已排队或执行中的路径，避免重复入队
+    private final Set<String> active = new HashSet<>();
+    private String openPath;
+    private long nextSequence = 0;
+    private int running = 0;
+    private boolean started = false;
+    private volatile boolean shutdown = false;
+    private volatile Listener listener;
+
+    public IndexScheduler(Task task, IndexJournal journal, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.task = task;
+        this.journal = journal;
+        this.workers = new Thread[parallelism];
+    }
+
+    /**
+     * Worker count for the device: one core is left for playback, and each worker may hold
+     * a hardware decoder while extracting thumbnails
+     *
+     * @param freeDecoders decoder instances not needed by playback
+     */
+    public static int parallelismFor(int cpuCount, int freeDecoders) {
+        return Math.max(1, Math.min(cpuCount - 1, freeDecoders));
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "IndexWorker-" + i);
+            workers[i].setPriority(Thread.MIN_PRIORITY);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Stop the workers; interrupted jobs stay unfinished in the journal
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            queue.clear();
+            notifyAll();
+        }
+        for (Thread worker : workers) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            reportJournalError(e);
+        }
+    }
+
+    /**
+     * Replay the journal and queue the jobs that were unfinished last time; disk I/O, call
+     * off the UI thread
+     *
+     * @return number of jobs queued
+     */
+    public int resume() {
+        try {
+            journal.load();
+        } catch (IOException e) {
+            reportJournalError(e);
+            return 0;
+        }
+        int queued = 0;
+        for (String path : journal.getUnfinished()) {
+            if (enqueue(new File(path))) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Queue every matching file in a folder, in name order; disk I/O, call off the UI thread
+     *
+     * @return number of jobs queued
+     */
+    public int enqueueFolder(File folder, FileFilter filter) {
+        File[] files = folder.listFiles(filter);
+        if (files == null) {
+            return 0;
+        }
+        Arrays.sort(files);
+        int queued = 0;
+        for (File file : files) {
+            if (enqueue(file)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Queue one file unless it is already queued, cached, or failed before
+     *
+     * @return true if a job was queued
+     */
+    public boolean enqueue(File file) {
+        if (!file.isFile() || shutdown) {
+            return false;
+        }
+        String path = file.getPath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        Job job;
+        synchronized (this) {
+            if (active.contains(path)) {
+                return false;
+            }
+            job = new Job(file, size, lastModified, nextSequence++);
+        }
+        int state = journal.getState(path, job.size, job.lastModified);
+        if (state == IndexJournal.STATE_FAILED
+                || (state == IndexJournal.STATE_DONE && task.isCached(job))) {
+            return false;
+        }
+        synchronized (this) {
+            if (shutdown || !active.add(path)) {
+                return false;
+            }
+        }
+        // 先写入日志再交给工作线程，保证完成记录总在入队记录之后
+        record(job, IndexJournal.STATE_QUEUED);
+        synchronized (this) {
+            if (shutdown) {
+                active.remove(path);
+                return false;
+            }
+            job.priority = path.equals(openPath) ? PRIORITY_OPEN_FILE : PRIORITY_NORMAL;
+            queue.add(job);
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Move the file currently open in the player to the front of the queue
+     */
+    public synchronized void setOpenFile(File file) {
+        openPath = file != null ? file.getPath() : null;
+        // PriorityQueue不支持原地更新优先级，取出后重新插入
+        Job[] jobs = queue.toArray(new Job[0]);
+        queue.clear();
+        for (Job job : jobs) {
+            job.priority = job.file.getPath().equals(openPath) ? PRIORITY_OPEN_FILE : PRIORITY_NORMAL;
+            queue.add(job);
+        }
+    }
+
+    /**
+     * Jobs queued or running
+     */
+    public synchronized int getRemaining() {
+        return queue.size() + running;
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            synchronized (this) {
+                while (queue.isEmpty() && !shutdown) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (shutdown) {
+                    return;
+                }
+                job = queue.poll();
+                running++;
+            }
+
+            Exception error = null;
+            try {
+                try {
+                    task.run(job);
+                } catch (InterruptedException e) {
+                    // 关闭时中断，任务在日志中保持未完成，下次启动继续
+                    return;
+                } catch (Exception e) {
+                    error = e;
+                }
+                if (shutdown) {
+                    return;
+                }
+                // 结果写入日志后才允许同一路径重新入队
+                record(job, error == null ? IndexJournal.STATE_DONE : IndexJournal.STATE_FAILED);
+            } finally {
+                // 中断或关闭提前返回时同样释放计数和路径
+                synchronized (this) {
+                    running--;
+                    active.remove(job.file.getPath());
+                }
+            }
+            Listener l = listener;
+            if (l != null) {
+                l.onJobFinished(job, error, getRemaining());
+            }
+        }
+    }
+
+    private void record(Job job, int state) {
+        try {
+            journal.record(job.file.getPath(), job.size, job.lastModified, state);
+        } catch (IOException e) {
+            reportJournalError(e);
+        }
+    }
+
+    private void reportJournalError(IOException e) {
+        Listener l = listener;
+        if (l != null) {
+            l.onJournalError(e);
+        }
+    }
+}
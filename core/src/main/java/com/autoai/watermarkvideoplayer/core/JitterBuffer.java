@@ -0,0 +1,224 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Bounded jitter buffer for live access units, kept in decode order.
+ * <p>
+ * 帧按DTS映射到本地时间：due = baseNanos + (dts - baseDts) + targetDelay。
+ * <ul>
+ *     <li>缓冲时长超过 maxDelayUs 时跳到最近的关键帧，丢弃之前的帧以追赶直播</li>
+ *     <li>缓冲为空且新帧已迟到（欠载）时重新建立时间基准</li>
+ *     <li>容量已满时同样触发追赶，不会阻塞接收线程</li>
+ * </ul>
+ * Frames are pooled; callers must {@link #recycle(Frame)} each frame returned by
+ * {@link #poll(long)}.
+ */
+public class JitterBuffer {
+
+    public static final class Frame {
+        public byte[] data = new byte[0];
+        public int size;
+        public long ptsUs;
+        public long dtsUs;
+        public boolean keyFrame;
+        public long arrivalNanos;
+        long dueNanos;
+    }
+
+    private final long targetDelayUs;
+    private final long maxDelayUs;
+    private final Frame[] ring;
+    private final Frame[] free;
+    private int head = 0;
+    private int count = 0;
+    private int freeCount;
+
+    private boolean hasBase = false;
+    private long baseDtsUs;
+    private long baseNanos;
+    private long droppedFrames = 0;
+    private long catchUps = 0;
+
+    public JitterBuffer(int capacity, long targetDelayUs, long maxDelayUs) {
+        if (capacity < 2 || maxDelayUs < targetDelayUs) {
+            throw new IllegalArgumentException("capacity >= 2 and maxDelay >= targetDelay required");
+        }
+        this.targetDelayUs = targetDelayUs;
+        this.maxDelayUs = maxDelayUs;
+        ring = new Frame[capacity];
+        free = new Frame[capacity];
+        for (int i = 0; i < capacity; i++) {
+            free[i] = new Frame();
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Copy an access unit into the buffer
+     */
+    public synchronized void offer(byte[] src, int offset, int size, long ptsUs, long dtsUs,
+                                   boolean keyFrame, long arrivalNanos) {
+        if (freeCount == 0) {
+            skipToKeyFrame(arrivalNanos, true);
+        }
+        if (freeCount == 0 || (!hasBase && !keyFrame)) {
+            // 解码器需要从关键帧开始
+            droppedFrames++;
+            return;
+        }
+
+        Frame frame = free[--freeCount];
+        free[freeCount] = null;
+        if (frame.data.length < size) {
+            frame.data = new byte[size + size / 4];
+        }
+        System.arraycopy(src, offset, frame.data, 0, size);
+        frame.size = size;
+        frame.ptsUs = ptsUs;
+        frame.dtsUs = dtsUs;
+        frame.keyFrame = keyFrame;
+        frame.arrivalNanos = arrivalNanos;
+
+        if (!hasBase || (count == 0 && dueNanos(dtsUs) < arrivalNanos)) {
+            rebase(dtsUs, arrivalNanos);
+        }
+        frame.dueNanos = dueNanos(dtsUs);
+        ring[(head + count) % ring.length] = frame;
+        count++;
+
+        if (getBufferedDurationUs() > maxDelayUs) {
+            skipToKeyFrame(arrivalNanos, false);
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return the head frame if it is due at nowNanos, otherwise null
+     */
+    public synchronized Frame poll(long nowNanos) {
+        if (count == 0 || ring[head].dueNanos > nowNanos) {
+            return null;
+        }
+        Frame frame = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        return frame;
+    }
+
+    public synchronized void recycle(Frame frame) {
+        free[freeCount++] = frame;
+    }
+
+    /**
+     * @return nanoseconds until the head frame is due, Long.MAX_VALUE when empty
+     */
+    public synchronized long nanosUntilDue(long nowNanos) {
+        if (count == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, ring[head].dueNanos - nowNanos);
+    }
+
+    /**
+     * Block up to maxWaitMs for a frame to arrive
+     */
+    public synchronized void awaitFrame(long maxWaitMs) throws InterruptedException {
+        if (count == 0) {
+            wait(maxWaitMs);
+        }
+    }
+
+    public synchronized int getBufferedFrames() {
+        return count;
+    }
+
+    public synchronized long getBufferedDurationUs() {
+        if (count < 2) {
+            return 0;
+        }
+        return ring[(head + count - 1) % ring.length].dtsUs - ring[head].dtsUs;
+    }
+
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public synchronized long getCatchUps() {
+        return catchUps;
+    }
+
+    public synchronized void clear() {
+        while (count > 0) {
+            recycle(ring[head]);
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            count--;
+        }
+        hasBase = false;
+    }
+
+    private long dueNanos(long dtsUs) {
+        return baseNanos + (dtsUs - baseDtsUs + targetDelayUs) * 1000;
+    }
+
+    private void rebase(long dtsUs, long arrivalNanos) {
+        hasBase = true;
+        baseDtsUs = dtsUs;
+        baseNanos = arrivalNanos;
+    }
+
+    /**
+     * Drop queued frames up to a key frame so that at most targetDelayUs remains buffered
+     *
+     * @param force when the pool is exhausted, skip to the newest key frame even if it
+     *              would leave more than the target buffered
+     */
+    private void skipToKeyFrame(long nowNanos, boolean force) {
+        if (count == 0) {
+            return;
+        }
+        long newestDts = ring[(head + count - 1) % ring.length].dtsUs;
+        int target = -1;
+        int lastKey = -1;
+        for (int i = 1; i < count; i++) {
+            Frame frame = ring[(head + i) % ring.length];
+            if (!frame.keyFrame) {
+                continue;
+            }
+            lastKey = i;
+            if (newestDts - frame.dtsUs <= targetDelayUs) {
+                target = i;
+                break;
+            }
+        }
+        if (target < 0) {
+            target = lastKey;
+        }
+        if (target < 0) {
+            if (!force) {
+                return;
+            }
+            // 没有可跳转的关键帧，只能清空并等待下一个关键帧
+            droppedFrames += count;
+            clear();
+            catchUps++;
+            return;
+        }
+
+        for (int i = 0; i < target; i++) {
+            recycle(ring[head]);
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            count--;
+            droppedFrames++;
+        }
+        catchUps++;
+
+        // 新的队首立即到期，其余帧按原有间隔排列
+        rebase(ring[head].dtsUs, nowNanos - targetDelayUs * 1000);
+        for (int i = 0; i < count; i++) {
+            Frame frame = ring[(head + i) % ring.length];
+            frame.dueNanos = dueNanos(frame.dtsUs);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Tracks receive-to-render latency of live frames, keyed by presentation timestamp.
+ * <p>
+ * 只覆盖本机部分：从收到完整access unit到渲染，不含发送端采集、编码和网络传输。
+ * 使用固定大小的环形表记录到达时间，渲染时按PTS查找，不产生分配。
+ */
+public class LatencyTracker {
+    private static final int SLOTS = 128;
+    private static final float SMOOTHING = 0.1f;
+
+    private final long[] ptsUs = new long[SLOTS];
+    private final long[] arrivalNanos = new long[SLOTS];
+    private int next = 0;
+
+    private long lastUs = 0;
+    private float averageUs = 0.0f;
+    private long maxUs = 0;
+    private long samples = 0;
+
+    public LatencyTracker() {
+        reset();
+    }
+
+    public synchronized void markArrival(long pts, long nanos) {
+        ptsUs[next] = pts;
+        arrivalNanos[next] = nanos;
+        next = (next + 1) % SLOTS;
+    }
+
+    /**
+     * @return latency in microseconds, or -1 if the frame's arrival was not recorded
+     */
+    public synchronized long markRendered(long pts, long nanos) {
+        for (int i = 1; i <= SLOTS; i++) {
+            int slot = (next - i + SLOTS) % SLOTS;
+            if (ptsUs[slot] == pts) {
+                long latencyUs = (nanos - arrivalNanos[slot]) / 1000;
+                ptsUs[slot] = Long.MIN_VALUE;
+                lastUs = latencyUs;
+                averageUs = samples == 0 ? latencyUs : averageUs + (latencyUs - averageUs) * SMOOTHING;
+                maxUs = Math.max(maxUs, latencyUs);
+                samples++;
+                return latencyUs;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized long getLastUs() {
+        return lastUs;
+    }
+
+    public synchronized long getAverageUs() {
+        return (long) averageUs;
+    }
+
+    public synchronized long getMaxUs() {
+        return maxUs;
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < SLOTS; i++) {
+            ptsUs[i] = Long.MIN_VALUE;
+        }
+        lastUs = 0;
+        averageUs = 0.0f;
+        maxUs = 0;
+        samples = 0;
+    }
+}
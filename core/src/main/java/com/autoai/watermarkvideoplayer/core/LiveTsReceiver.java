@@ -0,0 +1,186 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Receives a live MPEG-TS feed and pushes it into a {@link TsDemuxer}.
+ * <p>
+ * 支持 udp://[group]:port（单播或组播）和 http(s):// 渐进式TS流。
+ * {@link #run()} blocks on the calling thread until {@link #close()}.
+ */
+public class LiveTsReceiver implements Runnable, Closeable {
+    private static final int UDP_BUFFER_SIZE = 64 * 1024;
+    private static final int HTTP_BUFFER_SIZE = 16 * 1024;
+    private static final int SOCKET_RECEIVE_BUFFER = 2 * 1024 * 1024;
+    private static final int HTTP_CONNECT_TIMEOUT_MS = 3000;
+
+    public interface Listener {
+        void onReceiveError(IOException e);
+    }
+
+    private final URI uri;
+    private final TsDemuxer demuxer;
+    private final Listener listener;
+
+    private volatile boolean closed = false;
+    private volatile DatagramSocket socket;
+    private volatile InputStream stream;
+    private volatile long bytesReceived = 0;
+    private volatile long discardedChunks = 0;
+
+    public LiveTsReceiver(String url, TsDemuxer demuxer, Listener listener) {
+        this.uri = URI.create(url);
+        this.demuxer = demuxer;
+        this.listener = listener;
+        String scheme = uri.getScheme();
+        if (!"udp".equals(scheme) && !"http".equals(scheme) && !"https".equals(scheme)) {
+            throw new IllegalArgumentException("Unsupported live source: " + url);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if ("udp".equals(uri.getScheme())) {
+                receiveUdp();
+            } else {
+                receiveHttp();
+            }
+        } catch (IOException e) {
+            if (!closed && listener != null) {
+                listener.onReceiveError(e);
+            }
+        } finally {
+            demuxer.flush();
+        }
+    }
+
+    /**
+     * Whether the source is a udp:// multicast group given as an address literal.
+     * <p>
+     * 只解析地址字面量，不做DNS查询，可在主线程调用（例如决定是否持有Wi-Fi组播锁）。
+     */
+    public boolean isMulticast() {
+        String host = uri.getHost();
+        if (!"udp".equals(uri.getScheme()) || host == null) {
+            return false;
+        }
+        if (host.startsWith("[")) {
+            // IPv6组播地址 ff00::/8
+            return host.regionMatches(true, 1, "ff", 0, 2);
+        }
+        String[] octets = host.split("\\.", -1);
+        if (octets.length != 4) {
+            return false;
+        }
+        for (String octet : octets) {
+            if (octet.isEmpty() || octet.length() > 3) {
+                return false;
+            }
+            for (int i = 0; i < octet.length(); i++) {
+                if (octet.charAt(i) < '0' || octet.charAt(i) > '9') {
+                    return false;
+                }
+            }
+        }
+        // IPv4组播地址 224.0.0.0/4
+        int first = Integer.parseInt(octets[0]);
+        return first >= 224 && first <= 239;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /** Received chunks the demuxer failed on and dropped */
+    public long getDiscardedChunks() {
+        return discardedChunks;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        DatagramSocket s = socket;
+        if (s != null) {
+            s.close();
+        }
+        InputStream in = stream;
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // 关闭时忽略
+            }
+        }
+    }
+
+    private void receiveUdp() throws IOException {
+        String host = uri.getHost();
+        InetAddress group = host != null && !host.isEmpty() ? InetAddress.getByName(host) : null;
+        DatagramSocket s;
+        if (group != null && group.isMulticastAddress()) {
+            MulticastSocket multicast = new MulticastSocket(uri.getPort());
+            multicast.joinGroup(new InetSocketAddress(group, uri.getPort()), null);
+            s = multicast;
+        } else {
+            s = new DatagramSocket(uri.getPort());
+        }
+        s.setReceiveBufferSize(SOCKET_RECEIVE_BUFFER);
+        socket = s;
+        try {
+            byte[] buffer = new byte[UDP_BUFFER_SIZE];
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            while (!closed) {
+                packet.setLength(buffer.length);
+                s.receive(packet);
+                bytesReceived += packet.getLength();
+                feed(buffer, packet.getOffset(), packet.getLength());
+            }
+        } finally {
+            s.close();
+        }
+    }
+
+    /**
+     * One malformed packet must not end the receive thread: drop the chunk and resync
+     */
+    private void feed(byte[] buffer, int offset, int length) {
+        try {
+            demuxer.feed(buffer, offset, length);
+        } catch (RuntimeException e) {
+            discardedChunks++;
+            demuxer.discardPending();
+        }
+    }
+
+    private void receiveHttp() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(uri.toString()).openConnection();
+        connection.setConnectTimeout(HTTP_CONNECT_TIMEOUT_MS);
+        connection.setUseCaches(false);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + connection.getResponseCode() + " for " + uri);
+            }
+            InputStream in = connection.getInputStream();
+            stream = in;
+            byte[] buffer = new byte[HTTP_BUFFER_SIZE];
+            int read;
+            while (!closed && (read = in.read(buffer)) != -1) {
+                bytesReceived += read;
+                feed(buffer, 0, read);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
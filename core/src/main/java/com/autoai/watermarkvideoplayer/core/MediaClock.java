@@ -0,0 +1,58 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Shared media clock driven by a monotonic time source.
+ * <p>
+ * 位置以微秒表示，与MediaCodec的presentationTimeUs一致。
+ */
+public class MediaClock {
+    private final TimeSource timeSource;
+
+    private boolean running = false;
+    private long anchorPositionUs = 0;
+    private long anchorNanos = 0;
+
+    public MediaClock(TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    public synchronized void start(long positionUs) {
+        anchorPositionUs = positionUs;
+        anchorNanos = timeSource.nanoTime();
+        running = true;
+    }
+
+    public synchronized void pause() {
+        if (running) {
+            anchorPositionUs = getPositionUs();
+            running = false;
+        }
+    }
+
+    public synchronized void resume() {
+        if (!running) {
+            anchorNanos = timeSource.nanoTime();
+            running = true;
+        }
+    }
+
+    public synchronized void seekTo(long positionUs) {
+        anchorPositionUs = positionUs;
+        anchorNanos = timeSource.nanoTime();
+    }
+
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized long getPositionUs() {
+        if (!running) {
+            return anchorPositionUs;
+        }
+        return anchorPositionUs + (timeSource.nanoTime() - anchorNanos) / 1000;
+    }
+}
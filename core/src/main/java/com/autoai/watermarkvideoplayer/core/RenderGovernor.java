@@ -0,0 +1,180 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Chooses a {@link RenderLevel} from thermal status, power source and measured frame cost.
+ * <p>
+ * 策略：
+ * <ul>
+ *     <li>温控状态和电池供电给出最低降级等级（LIGHT/电池→1，MODERATE→2，SEVERE及以上→3）</li>
+ *     <li>帧耗时平均值超过当前帧间隔的 HIGH_COST_RATIO 时再降一级，低于 LOW_COST_RATIO 时允许回升</li>
+ *     <li>滞回：降级需持续 degradeHoldNanos，回升需持续 recoverHoldNanos，每次只变化一级</li>
+ *     <li>CRITICAL及以上立即降到最低等级</li>
+ * </ul>
+ * All inputs carry explicit timestamps so recorded traces can be replayed on the JVM.
+ */
+public class RenderGovernor {
+    /** Thermal status values, same as android.os.PowerManager.THERMAL_STATUS_* */
+    public static final int THERMAL_NONE = 0;
+    public static final int THERMAL_LIGHT = 1;
+    public static final int THERMAL_MODERATE = 2;
+    public static final int THERMAL_SEVERE = 3;
+    public static final int THERMAL_CRITICAL = 4;
+
+    public static final float HIGH_COST_RATIO = 0.8f;
+    public static final float LOW_COST_RATIO = 0.4f;
+    private static final float COST_SMOOTHING = 0.05f;
+
+    public enum Reason {
+        THERMAL,
+        POWER,
+        FRAME_COST,
+        RECOVERY
+    }
+
+    public interface Listener {
+        void onRenderLevelChanged(RenderLevel from, RenderLevel to, Reason reason);
+    }
+
+    private final long degradeHoldNanos;
+    private final long recoverHoldNanos;
+    private Listener listener;
+
+    private RenderLevel level = RenderLevel.FULL;
+    private int thermalStatus = THERMAL_NONE;
+    private boolean onBattery = false;
+    private float frameCostNanos = 0.0f;
+    private boolean hasFrameCost = false;
+
+    private int pendingDirection = 0;
+    private long pendingSinceNanos = 0;
+
+    public RenderGovernor() {
+        this(2_000_000_000L, 10_000_000_000L);
+    }
+
+    public RenderGovernor(long degradeHoldNanos, long recoverHoldNanos) {
+        this.degradeHoldNanos = degradeHoldNanos;
+        this.recoverHoldNanos = recoverHoldNanos;
+    }
+
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public synchronized RenderLevel getLevel() {
+        return level;
+    }
+
+    public synchronized float getFrameCostNanos() {
+        return frameCostNanos;
+    }
+
+    public synchronized void onThermalStatus(int status, long nowNanos) {
+        thermalStatus = status;
+        if (status >= THERMAL_CRITICAL && level != RenderLevel.MINIMAL) {
+            change(RenderLevel.MINIMAL, Reason.THERMAL);
+            return;
+        }
+        evaluate(nowNanos);
+    }
+
+    public synchronized void onPowerSource(boolean onBattery, long nowNanos) {
+        this.onBattery = onBattery;
+        evaluate(nowNanos);
+    }
+
+    /**
+     * Record the render cost of one frame and re-evaluate
+     */
+    public synchronized void onFrameCost(long costNanos, long nowNanos) {
+        if (hasFrameCost) {
+            frameCostNanos += (costNanos - frameCostNanos) * COST_SMOOTHING;
+        } else {
+            frameCostNanos = costNanos;
+            hasFrameCost = true;
+        }
+        evaluate(nowNanos);
+    }
+
+    /**
+     * Apply hysteresis towards the desired level; call periodically even without new input
+     */
+    public synchronized void evaluate(long nowNanos) {
+        RenderLevel floor = environmentFloor();
+        int target = Math.max(floor.ordinal(), costTarget().ordinal());
+        int direction = Integer.signum(target - level.ordinal());
+
+        if (direction == 0) {
+            pendingDirection = 0;
+            return;
+        }
+        if (direction != pendingDirection) {
+            pendingDirection = direction;
+            pendingSinceNanos = nowNanos;
+        }
+        long hold = direction > 0 ? degradeHoldNanos : recoverHoldNanos;
+        if (nowNanos - pendingSinceNanos < hold) {
+            return;
+        }
+
+        Reason reason;
+        if (direction < 0) {
+            reason = Reason.RECOVERY;
+        } else if (level.ordinal() < floor.ordinal()) {
+            reason = thermalFloor().ordinal() >= floor.ordinal() ? Reason.THERMAL : Reason.POWER;
+        } else {
+            reason = Reason.FRAME_COST;
+        }
+        change(direction > 0 ? level.lower() : level.higher(), reason);
+        if (target != level.ordinal()) {
+            // 仍未到达目标：同方向的下一级从本次变化起重新计时
+            pendingDirection = direction;
+            pendingSinceNanos = nowNanos;
+        }
+    }
+
+    private RenderLevel environmentFloor() {
+        RenderLevel thermal = thermalFloor();
+        RenderLevel power = onBattery ? RenderLevel.REDUCED_RATE : RenderLevel.FULL;
+        return thermal.ordinal() >= power.ordinal() ? thermal : power;
+    }
+
+    private RenderLevel thermalFloor() {
+        if (thermalStatus >= THERMAL_SEVERE) {
+            return RenderLevel.MINIMAL;
+        } else if (thermalStatus == THERMAL_MODERATE) {
+            return RenderLevel.REDUCED_SCALE;
+        } else if (thermalStatus == THERMAL_LIGHT) {
+            return RenderLevel.REDUCED_RATE;
+        }
+        return RenderLevel.FULL;
+    }
+
+    private RenderLevel costTarget() {
+        if (!hasFrameCost) {
+            // 没有帧耗时数据时不限制，只由温控和供电决定
+            return RenderLevel.FULL;
+        }
+        long budget = level.minFrameIntervalNanos();
+        if (frameCostNanos > budget * HIGH_COST_RATIO) {
+            return level.lower();
+        }
+        if (frameCostNanos < budget * LOW_COST_RATIO) {
+            // 回升后的帧间隔更短，需按更高等级的预算判断
+            RenderLevel higher = level.higher();
+            if (frameCostNanos < higher.minFrameIntervalNanos() * HIGH_COST_RATIO) {
+                return higher;
+            }
+        }
+        return level;
+    }
+
+    private void change(RenderLevel to, Reason reason) {
+        RenderLevel from = level;
+        level = to;
+        pendingDirection = 0;
+        if (listener != null) {
+            listener.onRenderLevelChanged(from, to, reason);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Output quality steps applied by {@link RenderGovernor}, from full quality to minimal load
+ */
+public enum RenderLevel {
+    FULL(60, 1.0f, false),
+    REDUCED_RATE(30, 1.0f, false),
+    REDUCED_SCALE(30, 0.75f, false),
+    MINIMAL(20, 0.5f, true);
+
+    /** Maximum output frame rate */
+    public final int maxFps;
+    /** Surface buffer size relative to the view size */
+    public final float renderScale;
+    /** Skip optional passes and use cheaper sampling */
+    public final boolean simpleShading;
+
+    RenderLevel(int maxFps, float renderScale, boolean simpleShading) {
+        this.maxFps = maxFps;
+        this.renderScale = renderScale;
+        this.simpleShading = simpleShading;
+    }
+
+    public long minFrameIntervalNanos() {
+        return 1_000_000_000L / maxFps;
+    }
+
+    /**
+     * Interval for {@link FrameScheduler}; 0 at FULL, where frames are drawn as they arrive
+     * and only the display's vsync limits the rate, so pacing would only add latency
+     */
+    public long pacingIntervalNanos() {
+        return this == FULL ? 0 : minFrameIntervalNanos();
+    }
+
+    public RenderLevel lower() {
+        return this == MINIMAL ? MINIMAL : values()[ordinal() + 1];
+    }
+
+    public RenderLevel higher() {
+        return this == FULL ? FULL : values()[ordinal() - 1];
+    }
+}
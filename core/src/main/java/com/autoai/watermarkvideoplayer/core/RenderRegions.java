@@ -0,0 +1,66 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Texture regions sampled by the renderer for the current camera position.
+ * <p>
+ * ALL 使用单区域模式（cropRegion），单个摄像头使用双区域模式（水印 + 摄像头）。
+ * Arrays are reused so updates do not allocate.
+ */
+public class RenderRegions {
+    public static final float DEFAULT_WATERMARK_HEIGHT = 0.1f;
+    public static final float MAX_WATERMARK_HEIGHT = 0.3f;
+
+    private final float[] cropRegion = {0.0f, 0.0f, 1.0f, 1.0f};
+    private final float[] watermarkRegion = {0.0f, 0.0f, 1.0f, DEFAULT_WATERMARK_HEIGHT};
+    private final float[] cameraRegion = {0.0f, 0.1f, 0.5f, 0.45f};
+    private boolean dualMode = false;
+
+    /**
+     * Recompute regions for the given camera position and watermark height ratio
+     */
+    public void update(CameraPosition position, float watermarkHeight) {
+        if (position == CameraPosition.ALL) {
+            // 显示完整视频
+            dualMode = false;
+            set(cropRegion, 0.0f, 0.0f, 1.0f, 1.0f);
+        } else {
+            // 显示水印 + 选中的摄像头
+            dualMode = true;
+            set(watermarkRegion, 0.0f, 0.0f, 1.0f, watermarkHeight);
+            set(cameraRegion, position.x, position.y, position.width, position.height);
+        }
+    }
+
+    public boolean isDualMode() {
+        return dualMode;
+    }
+
+    public float[] getCropRegion() {
+        return cropRegion;
+    }
+
+    public float[] getWatermarkRegion() {
+        return watermarkRegion;
+    }
+
+    public float[] getCameraRegion() {
+        return cameraRegion;
+    }
+
+    /**
+     * Clamp a watermark height ratio to the supported range (0.0 - 0.3)
+     */
+    public static float clampWatermarkHeight(float height) {
+        if (Float.isNaN(height) || height < 0.0f) {
+            return 0.0f;
+        }
+        return Math.min(height, MAX_WATERMARK_HEIGHT);
+    }
+
+    private static void set(float[] region, float x, float y, float width, float height) {
+        region[0] = x;
+        region[1] = y;
+        region[2] = width;
+        region[3] = height;
+    }
+}
@@ -0,0 +1,267 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Keeps up to four decoded streams in lockstep against a shared {@link MediaClock}.
+ * <p>
+ * 每个解码线程在输出一帧前调用 {@link #decide(int, long)}：
+ * <ul>
+ *     <li>预读阶段所有流都送出首帧后，时钟从最小的首帧时间戳启动；超过 prerollTimeoutUs
+ *     仍未送出首帧的流不再等待</li>
+ *     <li>帧早于时钟超过 dropThresholdUs 时丢弃，超过 resyncThresholdUs 时要求重新seek</li>
+ *     <li>所有流到达结尾后时钟归零并递增generation，解码线程据此循环播放</li>
+ *     <li>解码出错的流通过 {@link #removeStream(int)} 移出同步集合，不再阻塞预读和循环</li>
+ * </ul>
+ * Drift is tracked per stream as an exponential moving average of (pts - clock) over due
+ * frames. 持续超出 renderToleranceUs 的漂移（例如某路解码输出总是晚到）通过每路的
+ * 时间偏移逐步吸收，偏移上限为 dropThresholdUs；漂移回到容差内时偏移缓慢衰减。
+ */
+public class StreamSyncController {
+    public static final int MAX_STREAMS = 4;
+
+    public enum Action {
+        /** Frame is due now, render it */
+        RENDER,
+        /** Frame is early, hold it for {@link #timeUntilDueUs(int, long)} */
+        WAIT,
+        /** Frame is late, release without rendering */
+        DROP,
+        /** Stream fell too far behind, seek to {@link #getClock()} position */
+        RESYNC
+    }
+
+    private static final float DRIFT_SMOOTHING = 0.1f;
+    // 每个到期帧按漂移修正偏移的比例
+    private static final float OFFSET_GAIN = 0.1f;
+    // 漂移在容差内时偏移每帧的衰减比例，让恢复正常的流回到时钟上
+    private static final float OFFSET_DECAY = 0.01f;
+
+    private final MediaClock clock;
+    private final int streamCount;
+    private final long renderToleranceUs;
+    private final long dropThresholdUs;
+    private final long resyncThresholdUs;
+    private final long prerollTimeoutUs;
+
+    private final long[] firstPtsUs;
+    private final boolean[] ended;
+    private final boolean[] removed;
+    private final float[] driftUs;
+    private final float[] offsetUs;
+    private final boolean[] resyncing;
+    private final long[] renderedFrames;
+    private final long[] droppedFrames;
+    private boolean prerolled = false;
+    private long prerollStartNanos = -1;
+    private int generation = 0;
+
+    public StreamSyncController(MediaClock clock, int streamCount) {
+        this(clock, streamCount, 5_000, 40_000, 250_000, 1_000_000);
+    }
+
+    public StreamSyncController(MediaClock clock, int streamCount, long renderToleranceUs,
+                                long dropThresholdUs, long resyncThresholdUs, long prerollTimeoutUs) {
+        if (streamCount < 1 || streamCount > MAX_STREAMS) {
+            throw new IllegalArgumentException("streamCount must be 1.." + MAX_STREAMS);
+        }
+        this.clock = clock;
+        this.streamCount = streamCount;
+        this.renderToleranceUs = renderToleranceUs;
+        this.dropThresholdUs = dropThresholdUs;
+        this.resyncThresholdUs = resyncThresholdUs;
+        this.prerollTimeoutUs = prerollTimeoutUs;
+        firstPtsUs = new long[streamCount];
+        ended = new boolean[streamCount];
+        removed = new boolean[streamCount];
+        driftUs = new float[streamCount];
+        offsetUs = new float[streamCount];
+        resyncing = new boolean[streamCount];
+        renderedFrames = new long[streamCount];
+        droppedFrames = new long[streamCount];
+        reset();
+    }
+
+    /**
+     * Decide what to do with a decoded frame of the given stream
+     */
+    public synchronized Action decide(int stream, long ptsUs) {
+        if (!prerolled) {
+            if (firstPtsUs[stream] == Long.MIN_VALUE) {
+                firstPtsUs[stream] = ptsUs;
+                notifyAll();
+            }
+            // 从第一路送出首帧开始计时，超时后不再等待其余流
+            long nowNanos = clock.getTimeSource().nanoTime();
+            if (prerollStartNanos < 0) {
+                prerollStartNanos = nowNanos;
+            }
+            if (!tryStartClock(nowNanos - prerollStartNanos >= prerollTimeoutUs * 1000)) {
+                return Action.WAIT;
+            }
+        }
+
+        long deltaUs = ptsUs + (long) offsetUs[stream] - clock.getPositionUs();
+        if (deltaUs > renderToleranceUs) {
+            resyncing[stream] = false;
+            return Action.WAIT;
+        }
+        if (deltaUs < -resyncThresholdUs && !resyncing[stream]) {
+            // seek回关键帧后的帧仍然落后，持续丢弃直到追上时钟
+            resyncing[stream] = true;
+            driftUs[stream] = 0.0f;
+            offsetUs[stream] = 0.0f;
+            return Action.RESYNC;
+        }
+        if (!resyncing[stream]) {
+            // 只在帧到期时统计漂移，等待中的轮询和seek后追赶时钟的帧不计入
+            driftUs[stream] += (deltaUs - driftUs[stream]) * DRIFT_SMOOTHING;
+            correctOffset(stream);
+        }
+        if (deltaUs < -dropThresholdUs) {
+            droppedFrames[stream]++;
+            return Action.DROP;
+        }
+        resyncing[stream] = false;
+        renderedFrames[stream]++;
+        return Action.RENDER;
+    }
+
+    /**
+     * Time until the frame is due, 0 when it is already due; Long.MAX_VALUE while paused or prerolling
+     */
+    public synchronized long timeUntilDueUs(int stream, long ptsUs) {
+        if (!prerolled || !clock.isRunning()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, ptsUs + (long) offsetUs[stream] - clock.getPositionUs());
+    }
+
+    /**
+     * Mark a stream as finished; when all have finished the clock rewinds for the next loop
+     *
+     * @return the generation the caller should wait to change before looping
+     */
+    public synchronized int markEnded(int stream) {
+        int current = generation;
+        ended[stream] = true;
+        rewindIfAllEnded();
+        return current;
+    }
+
+    /**
+     * Drop a stream whose decoder failed, so that preroll and looping stop waiting for it
+     */
+    public synchronized void removeStream(int stream) {
+        removed[stream] = true;
+        if (!prerolled && prerollStartNanos >= 0) {
+            tryStartClock(false);
+        }
+        rewindIfAllEnded();
+    }
+
+    public synchronized boolean isRemoved(int stream) {
+        return removed[stream];
+    }
+
+    /**
+     * Block until all streams have finished the given generation
+     */
+    public synchronized void awaitGeneration(int previous) throws InterruptedException {
+        while (generation == previous) {
+            wait();
+        }
+    }
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    public synchronized boolean isPrerolled() {
+        return prerolled;
+    }
+
+    public synchronized float getDriftUs(int stream) {
+        return driftUs[stream];
+    }
+
+    /**
+     * Current correction added to the stream's timestamps, in microseconds
+     */
+    public synchronized float getOffsetUs(int stream) {
+        return offsetUs[stream];
+    }
+
+    public synchronized long getRenderedFrames(int stream) {
+        return renderedFrames[stream];
+    }
+
+    public synchronized long getDroppedFrames(int stream) {
+        return droppedFrames[stream];
+    }
+
+    public int getStreamCount() {
+        return streamCount;
+    }
+
+    public MediaClock getClock() {
+        return clock;
+    }
+
+    /**
+     * @param timedOut start without the streams that have not delivered a frame yet
+     */
+    private boolean tryStartClock(boolean timedOut) {
+        long startUs = Long.MAX_VALUE;
+        for (int i = 0; i < streamCount; i++) {
+            if (removed[i] || ended[i]) {
+                continue;
+            }
+            if (firstPtsUs[i] == Long.MIN_VALUE) {
+                if (!timedOut) {
+                    return false;
+                }
+                continue;
+            }
+            startUs = Math.min(startUs, firstPtsUs[i]);
+        }
+        if (startUs == Long.MAX_VALUE) {
+            return false;
+        }
+        prerolled = true;
+        clock.start(startUs);
+        return true;
+    }
+
+    private void correctOffset(int stream) {
+        float drift = driftUs[stream];
+        if (Math.abs(drift) > renderToleranceUs) {
+            // 负漂移（帧晚到）增大偏移，使后续帧按偏移后的时间判断是否到期
+            float offset = offsetUs[stream] - drift * OFFSET_GAIN;
+            offsetUs[stream] = Math.max(-dropThresholdUs, Math.min(dropThresholdUs, offset));
+        } else {
+            offsetUs[stream] -= offsetUs[stream] * OFFSET_DECAY;
+        }
+    }
+
+    private void rewindIfAllEnded() {
+        for (int i = 0; i < streamCount; i++) {
+            if (!ended[i] && !removed[i]) {
+                return;
+            }
+        }
+        reset();
+        generation++;
+        notifyAll();
+    }
+
+    private void reset() {
+        prerolled = false;
+        prerollStartNanos = -1;
+        for (int i = 0; i < streamCount; i++) {
+            firstPtsUs[i] = Long.MIN_VALUE;
+            ended[i] = false;
+            driftUs[i] = 0.0f;
+            offsetUs[i] = 0.0f;
+            resyncing[i] = false;
+        }
+    }
+}
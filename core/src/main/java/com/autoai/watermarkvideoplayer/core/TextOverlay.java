@@ -0,0 +1,229 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Batched text quads for the overlay pass, built from a {@link GlyphAtlas}.
+ * <p>
+ * 每个文本槽位在顶点数组中占固定区间（容量 x 每字6个顶点），未使用的字符为退化三角形，
+ * 因此所有文本可用一次glDrawArrays绘制。只有内容变化的槽位会重建顶点，
+ * 并记录需要重新上传的脏区间；稳态下不产生任何分配。
+ * Vertex layout is interleaved {x, y, u, v} in normalized device coordinates.
+ */
+public class TextOverlay {
+    public static final int FLOATS_PER_VERTEX = 4;
+    public static final int VERTICES_PER_GLYPH = 6;
+    public static final int FLOATS_PER_GLYPH = FLOATS_PER_VERTEX * VERTICES_PER_GLYPH;
+
+    private final GlyphAtlas atlas;
+    private final int[] slotStart;
+    private final char[][] slotText;
+    private final int[] slotLength;
+    private final float[] slotX;
+    private final float[] slotY;
+    private final boolean[] slotDirty;
+    private final float[] vertices;
+    private final float[] uv = new float[4];
+    private final int glyphCapacity;
+
+    private int viewportWidth;
+    private int viewportHeight;
+    private float glyphHeightPx;
+    private int dirtyStart = Integer.MAX_VALUE;
+    private int dirtyEnd = 0;
+
+    /**
+     * @param slotCapacities maximum characters of each text slot
+     */
+    public TextOverlay(GlyphAtlas atlas, int... slotCapacities) {
+        this.atlas = atlas;
+        int slots = slotCapacities.length;
+        slotStart = new int[slots];
+        slotText = new char[slots][];
+        slotLength = new int[slots];
+        slotX = new float[slots];
+        slotY = new float[slots];
+        slotDirty = new boolean[slots];
+        int total = 0;
+        for (int i = 0; i < slots; i++) {
+            slotStart[i] = total;
+            slotText[i] = new char[slotCapacities[i]];
+            total += slotCapacities[i];
+        }
+        glyphCapacity = total;
+        vertices = new float[total * FLOATS_PER_GLYPH];
+        glyphHeightPx = atlas.getCellHeight();
+    }
+
+    /**
+     * Set the surface size and on-screen glyph height in pixels; all slots are rebuilt
+     */
+    public void setViewport(int width, int height, float glyphHeightPx) {
+        viewportWidth = width;
+        viewportHeight = height;
+        this.glyphHeightPx = glyphHeightPx;
+        markAllDirty();
+    }
+
+    /**
+     * Anchor a slot at a pixel position (top-left, y down)
+     */
+    public void setSlotPosition(int slot, float xPx, float yPx) {
+        if (slotX[slot] != xPx || slotY[slot] != yPx) {
+            slotX[slot] = xPx;
+            slotY[slot] = yPx;
+            slotDirty[slot] = true;
+        }
+    }
+
+    /**
+     * @param text null clears the slot
+     * @return true if the slot content changed
+     */
+    public boolean setText(int slot, CharSequence text) {
+        char[] current = slotText[slot];
+        int length = text != null ? Math.min(text.length(), current.length) : 0;
+        boolean changed = length != slotLength[slot];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (current[i] != c) {
+                current[i] = c;
+                changed = true;
+            }
+        }
+        slotLength[slot] = length;
+        if (changed) {
+            slotDirty[slot] = true;
+        }
+        return changed;
+    }
+
+    /**
+     * @return true if the slot content changed
+     */
+    public boolean setText(int slot, char[] text, int length) {
+        char[] current = slotText[slot];
+        length = Math.min(length, current.length);
+        boolean changed = length != slotLength[slot];
+        for (int i = 0; i < length; i++) {
+            if (current[i] != text[i]) {
+                current[i] = text[i];
+                changed = true;
+            }
+        }
+        slotLength[slot] = length;
+        if (changed) {
+            slotDirty[slot] = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Regenerate vertices of dirty slots
+     *
+     * @return true if any vertex changed since the last {@link #clearDirtyRange()}
+     */
+    public boolean rebuild() {
+        if (viewportWidth == 0 || viewportHeight == 0) {
+            return false;
+        }
+        for (int slot = 0; slot < slotStart.length; slot++) {
+            if (slotDirty[slot]) {
+                buildSlot(slot);
+                slotDirty[slot] = false;
+            }
+        }
+        return dirtyStart < dirtyEnd;
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    /** First float index that changed since the last upload */
+    public int getDirtyStart() {
+        return dirtyStart;
+    }
+
+    /** One past the last float index that changed since the last upload */
+    public int getDirtyEnd() {
+        return dirtyEnd;
+    }
+
+    public void clearDirtyRange() {
+        dirtyStart = Integer.MAX_VALUE;
+        dirtyEnd = 0;
+    }
+
+    public int getVertexCount() {
+        return glyphCapacity * VERTICES_PER_GLYPH;
+    }
+
+    public void markAllDirty() {
+        for (int i = 0; i < slotDirty.length; i++) {
+            slotDirty[i] = true;
+        }
+    }
+
+    private void buildSlot(int slot) {
+        float glyphH = 2.0f * glyphHeightPx / viewportHeight;
+        float glyphW = glyphH * atlas.getCellWidth() / atlas.getCellHeight()
+                * viewportHeight / viewportWidth;
+        float left = -1.0f + 2.0f * slotX[slot] / viewportWidth;
+        float top = 1.0f - 2.0f * slotY[slot] / viewportHeight;
+
+        int first = slotStart[slot];
+        int capacity = slotText[slot].length;
+        for (int i = 0; i < capacity; i++) {
+            int base = (first + i) * FLOATS_PER_GLYPH;
+            if (i < slotLength[slot]) {
+                atlas.fillUv(slotText[slot][i], uv);
+                float x0 = left + i * glyphW;
+                float x1 = x0 + glyphW;
+                float y1 = top - glyphH;
+                // 两个三角形：左上-左下-右上，右上-左下-右下
+                base = put(base, x0, top, uv[0], uv[1]);
+                base = put(base, x0, y1, uv[0], uv[3]);
+                base = put(base, x1, top, uv[2], uv[1]);
+                base = put(base, x1, top, uv[2], uv[1]);
+                base = put(base, x0, y1, uv[0], uv[3]);
+                put(base, x1, y1, uv[2], uv[3]);
+            } else {
+                for (int f = 0; f < FLOATS_PER_GLYPH; f++) {
+                    vertices[base + f] = 0.0f;
+                }
+            }
+        }
+        dirtyStart = Math.min(dirtyStart, first * FLOATS_PER_GLYPH);
+        dirtyEnd = Math.max(dirtyEnd, (first + capacity) * FLOATS_PER_GLYPH);
+    }
+
+    private int put(int index, float x, float y, float u, float v) {
+        vertices[index] = x;
+        vertices[index + 1] = y;
+        vertices[index + 2] = u;
+        vertices[index + 3] = v;
+        return index + FLOATS_PER_VERTEX;
+    }
+
+    /**
+     * Format milliseconds as "mm:ss.t" (or "--:--.-" when negative) without allocating
+     *
+     * @return number of chars written (always 7)
+     */
+    public static int formatTime(long ms, char[] out) {
+        if (ms < 0) {
+            "--:--.-".getChars(0, 7, out, 0);
+            return 7;
+        }
+        long tenths = ms / 100;
+        long seconds = tenths / 10;
+        long minutes = (seconds / 60) % 100;
+        out[0] = (char) ('0' + minutes / 10);
+        out[1] = (char) ('0' + minutes % 10);
+        out[2] = ':';
+        out[3] = (char) ('0' + (seconds % 60) / 10);
+        out[4] = (char) ('0' + (seconds % 60) % 10);
+        out[5] = '.';
+        out[6] = (char) ('0' + tenths % 10);
+        return 7;
+    }
+}
@@ -0,0 +1,123 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Vertex layout for camera thumbnails: one atlas cell per {@link CameraPosition}, filled
+ * from the 4-in-1 video in a single draw, then copied to the selector button rectangles.
+ * <p>
+ * 顶点为交错的 {x, y, u, v}，每个单元两个三角形（6个顶点），两次绘制都只需一次glDrawArrays。
+ * 按钮区域宽高比与单元不同时，呈现时居中裁剪而不是拉伸。
+ */
+public class ThumbnailAtlas {
+    public static final int FLOATS_PER_VERTEX = 4;
+    public static final int VERTICES_PER_CELL = 6;
+
+    private final CameraPosition[] cells;
+    private final int cellWidth;
+    private final int cellHeight;
+
+    public ThumbnailAtlas(int cellWidth, int cellHeight) {
+        this.cells = CameraPosition.values();
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    /** Atlas cells are laid out in a single row in CameraPosition order */
+    public int getTextureWidth() {
+        return cellWidth * cells.length;
+    }
+
+    public int getTextureHeight() {
+        return cellHeight;
+    }
+
+    public int getVertexCount() {
+        return cells.length * VERTICES_PER_CELL;
+    }
+
+    public int getFloatCount() {
+        return getVertexCount() * FLOATS_PER_VERTEX;
+    }
+
+    /**
+     * Vertices that render each camera region of the video texture into its atlas cell
+     *
+     * @param margin texture inset to avoid sampling across region edges
+     */
+    public void fillAtlasVertices(float margin, float[] out) {
+        float cellSpan = 2.0f / cells.length;
+        for (int i = 0; i < cells.length; i++) {
+            CameraPosition p = cells[i];
+            float left = -1.0f + i * cellSpan;
+            // 视频纹理坐标y向下：单元顶部对应区域顶部
+            putQuad(out, i, left, -1.0f, left + cellSpan, 1.0f,
+                    p.x + margin, p.y + p.height - margin, p.x + p.width - margin, p.y + margin);
+        }
+    }
+
+    /**
+     * Vertices that copy each atlas cell into its target rectangle
+     *
+     * @param rects        {x, y, width, height} per cell, normalized to the target surface
+     *                     with y down; a cell with zero width or height is skipped
+     * @param targetWidth  target surface width in pixels, for aspect-correct cropping
+     * @param targetHeight target surface height in pixels
+     * @return number of vertices written
+     */
+    public int fillPresentVertices(float[] rects, int targetWidth, int targetHeight, float[] out) {
+        float cellAspect = (float) cellWidth / cellHeight;
+        float cellU = 1.0f / cells.length;
+        int written = 0;
+        for (int i = 0; i < cells.length; i++) {
+            float x = rects[i * 4];
+            float y = rects[i * 4 + 1];
+            float w = rects[i * 4 + 2];
+            float h = rects[i * 4 + 3];
+            if (w <= 0.0f || h <= 0.0f) {
+                continue;
+            }
+            // 居中裁剪：目标更宽时裁掉单元上下，更高时裁掉左右
+            float targetAspect = (w * targetWidth) / (h * targetHeight);
+            float uSpan = cellU;
+            float vSpan = 1.0f;
+            if (targetAspect > cellAspect) {
+                vSpan = cellAspect / targetAspect;
+            } else {
+                uSpan = cellU * targetAspect / cellAspect;
+            }
+            float u0 = i * cellU + (cellU - uSpan) / 2.0f;
+            float v0 = (1.0f - vSpan) / 2.0f;
+            // FBO纹理原点在左下，顶部对应v较大的一端
+            putQuad(out, written / VERTICES_PER_CELL,
+                    -1.0f + 2.0f * x, 1.0f - 2.0f * (y + h), -1.0f + 2.0f * (x + w), 1.0f - 2.0f * y,
+                    u0, v0, u0 + uSpan, v0 + vSpan);
+            written += VERTICES_PER_CELL;
+        }
+        return written;
+    }
+
+    /**
+     * Two triangles; (u0, v0) maps to the bottom-left corner, (u1, v1) to the top-right
+     */
+    private static void putQuad(float[] out, int cell, float left, float bottom, float right, float top,
+                                float u0, float v0, float u1, float v1) {
+        int o = cell * VERTICES_PER_CELL * FLOATS_PER_VERTEX;
+        o = put(out, o, left, bottom, u0, v0);
+        o = put(out, o, right, bottom, u1, v0);
+        o = put(out, o, left, top, u0, v1);
+        o = put(out, o, left, top, u0, v1);
+        o = put(out, o, right, bottom, u1, v0);
+        put(out, o, right, top, u1, v1);
+    }
+
+    private static int put(float[] out, int o, float x, float y, float u, float v) {
+        out[o] = x;
+        out[o + 1] = y;
+        out[o + 2] = u;
+        out[o + 3] = v;
+        return o + FLOATS_PER_VERTEX;
+    }
+}
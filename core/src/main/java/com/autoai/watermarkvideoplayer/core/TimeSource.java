@@ -0,0 +1,10 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Monotonic time source, replaceable by a fake clock on the JVM
+ */
+public interface TimeSource {
+    TimeSource SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
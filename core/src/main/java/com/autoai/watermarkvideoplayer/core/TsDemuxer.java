@@ -0,0 +1,256 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Minimal MPEG-TS demuxer that extracts the first H.264/HEVC video stream.
+ * <p>
+ * 只解析PAT/PMT（假设各占一个TS包）和视频PES，按PES边界输出access unit。
+ * Input may be split at arbitrary byte boundaries; buffers are reused so steady-state
+ * demuxing does not allocate.
+ */
+public class TsDemuxer {
+    public static final int PACKET_SIZE = 188;
+    public static final String MIME_AVC = "video/avc";
+    public static final String MIME_HEVC = "video/hevc";
+
+    private static final int SYNC_BYTE = 0x47;
+    private static final int PID_PAT = 0;
+    private static final int STREAM_TYPE_H264 = 0x1B;
+    private static final int STREAM_TYPE_HEVC = 0x24;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    public interface Listener {
+        /** Called once the video stream type is known from the PMT */
+        void onVideoFormat(String mime);
+
+        /** Called for each complete access unit; data is only valid during the call */
+        void onAccessUnit(byte[] data, int offset, int size, long ptsUs, long dtsUs, boolean keyFrame);
+    }
+
+    private final Listener listener;
+    private final byte[] packet = new byte[PACKET_SIZE];
+    private int packetFill = 0;
+
+    private int pmtPid = -1;
+    private int videoPid = -1;
+    private String mime;
+
+    private byte[] unit = new byte[256 * 1024];
+    private int unitSize = 0;
+    private long unitPtsUs = NO_TIMESTAMP;
+    private long unitDtsUs = NO_TIMESTAMP;
+    private boolean unitStarted = false;
+
+    public TsDemuxer(Listener listener) {
+        this.listener = listener;
+    }
+
+    public String getMime() {
+        return mime;
+    }
+
+    /**
+     * Feed raw transport stream bytes
+     */
+    public void feed(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int pos = offset;
+        while (pos < end) {
+            if (packetFill == 0) {
+                // 重新对齐到同步字节
+                while (pos < end && (data[pos] & 0xFF) != SYNC_BYTE) {
+                    pos++;
+                }
+                if (pos == end) {
+                    return;
+                }
+            }
+            int copy = Math.min(PACKET_SIZE - packetFill, end - pos);
+            System.arraycopy(data, pos, packet, packetFill, copy);
+            packetFill += copy;
+            pos += copy;
+            if (packetFill == PACKET_SIZE) {
+                parsePacket(packet);
+                packetFill = 0;
+            }
+        }
+    }
+
+    /**
+     * Emit the access unit still being assembled, e.g. at end of stream
+     */
+    public void flush() {
+        emitUnit();
+    }
+
+    /**
+     * Drop the partial packet and access unit but keep the PAT/PMT state, e.g. after a
+     * malformed chunk
+     */
+    public void discardPending() {
+        packetFill = 0;
+        unitSize = 0;
+        unitStarted = false;
+    }
+
+    public void reset() {
+        packetFill = 0;
+        pmtPid = -1;
+        videoPid = -1;
+        mime = null;
+        unitSize = 0;
+        unitStarted = false;
+    }
+
+    private void parsePacket(byte[] p) {
+        int pid = ((p[1] & 0x1F) << 8) | (p[2] & 0xFF);
+        boolean unitStart = (p[1] & 0x40) != 0;
+        int adaptation = (p[3] >> 4) & 0x03;
+
+        int offset = 4;
+        if ((adaptation & 0x02) != 0) {
+            offset += 1 + (p[4] & 0xFF);
+        }
+        if ((adaptation & 0x01) == 0 || offset >= PACKET_SIZE) {
+            return;
+        }
+
+        if (pid == PID_PAT) {
+            if (unitStart) {
+                parsePat(p, offset + 1 + (p[offset] & 0xFF));
+            }
+        } else if (pid == pmtPid) {
+            if (unitStart) {
+                parsePmt(p, offset + 1 + (p[offset] & 0xFF));
+            }
+        } else if (pid == videoPid) {
+            if (unitStart) {
+                emitUnit();
+                offset = parsePesHeader(p, offset);
+                if (offset < 0) {
+                    return;
+                }
+                unitStarted = true;
+            }
+            if (unitStarted) {
+                append(p, offset, PACKET_SIZE - offset);
+            }
+        }
+    }
+
+    private void parsePat(byte[] p, int pos) {
+        if (pos + 8 > PACKET_SIZE) {
+            return;
+        }
+        int sectionLength = ((p[pos + 1] & 0x0F) << 8) | (p[pos + 2] & 0xFF);
+        int end = Math.min(pos + 3 + sectionLength - 4, PACKET_SIZE);
+        for (int i = pos + 8; i + 4 <= end; i += 4) {
+            int programNumber = ((p[i] & 0xFF) << 8) | (p[i + 1] & 0xFF);
+            if (programNumber != 0) {
+                pmtPid = ((p[i + 2] & 0x1F) << 8) | (p[i + 3] & 0xFF);
+                return;
+            }
+        }
+    }
+
+    private void parsePmt(byte[] p, int pos) {
+        if (pos + 12 > PACKET_SIZE) {
+            return;
+        }
+        int sectionLength = ((p[pos + 1] & 0x0F) << 8) | (p[pos + 2] & 0xFF);
+        int end = Math.min(pos + 3 + sectionLength - 4, PACKET_SIZE);
+        int programInfoLength = ((p[pos + 10] & 0x0F) << 8) | (p[pos + 11] & 0xFF);
+        for (int i = pos + 12 + programInfoLength; i + 5 <= end; ) {
+            int streamType = p[i] & 0xFF;
+            int pid = ((p[i + 1] & 0x1F) << 8) | (p[i + 2] & 0xFF);
+            int esInfoLength = ((p[i + 3] & 0x0F) << 8) | (p[i + 4] & 0xFF);
+            String streamMime = streamType == STREAM_TYPE_H264 ? MIME_AVC
+                    : streamType == STREAM_TYPE_HEVC ? MIME_HEVC : null;
+            if (streamMime != null) {
+                if (pid != videoPid) {
+                    videoPid = pid;
+                    mime = streamMime;
+                    listener.onVideoFormat(streamMime);
+                }
+                return;
+            }
+            i += 5 + esInfoLength;
+        }
+    }
+
+    /**
+     * @return offset of the PES payload, or -1 if the header is malformed
+     */
+    private int parsePesHeader(byte[] p, int pos) {
+        if (pos + 9 > PACKET_SIZE
+                || p[pos] != 0 || p[pos + 1] != 0 || p[pos + 2] != 1) {
+            unitStarted = false;
+            return -1;
+        }
+        int flags = p[pos + 7] & 0xFF;
+        int headerLength = p[pos + 8] & 0xFF;
+        int payload = pos + 9 + headerLength;
+        // 头长度超出本包视为损坏，丢弃这个access unit
+        if (payload >= PACKET_SIZE) {
+            unitStarted = false;
+            return -1;
+        }
+        unitPtsUs = NO_TIMESTAMP;
+        unitDtsUs = NO_TIMESTAMP;
+        if ((flags & 0x80) != 0 && pos + 14 <= PACKET_SIZE) {
+            unitPtsUs = readTimestamp(p, pos + 9) * 100 / 9;
+            unitDtsUs = unitPtsUs;
+        }
+        if ((flags & 0x40) != 0 && pos + 19 <= PACKET_SIZE) {
+            unitDtsUs = readTimestamp(p, pos + 14) * 100 / 9;
+        }
+        return payload;
+    }
+
+    private static long readTimestamp(byte[] p, int pos) {
+        return (((long) p[pos] & 0x0E) << 29)
+                | ((p[pos + 1] & 0xFF) << 22)
+                | ((p[pos + 2] & 0xFE) << 14)
+                | ((p[pos + 3] & 0xFF) << 7)
+                | ((p[pos + 4] & 0xFE) >> 1);
+    }
+
+    private void append(byte[] src, int offset, int length) {
+        if (unitSize + length > unit.length) {
+            byte[] grown = new byte[Math.max(unit.length * 2, unitSize + length)];
+            System.arraycopy(unit, 0, grown, 0, unitSize);
+            unit = grown;
+        }
+        System.arraycopy(src, offset, unit, unitSize, length);
+        unitSize += length;
+    }
+
+    private void emitUnit() {
+        if (unitStarted && unitSize > 0 && unitPtsUs != NO_TIMESTAMP) {
+            listener.onAccessUnit(unit, 0, unitSize, unitPtsUs, unitDtsUs,
+                    isKeyFrame(unit, unitSize, MIME_HEVC.equals(mime)));
+        }
+        unitSize = 0;
+        unitStarted = false;
+    }
+
+    /**
+     * Scan Annex-B start codes for an IDR (H.264) or IRAP (HEVC) NAL unit
+     */
+    static boolean isKeyFrame(byte[] data, int size, boolean hevc) {
+        for (int i = 0; i + 3 < size; i++) {
+            if (data[i] == 0 && data[i + 1] == 0 && data[i + 2] == 1) {
+                int header = data[i + 3] & 0xFF;
+                if (hevc) {
+                    int type = (header >> 1) & 0x3F;
+                    if (type >= 16 && type <= 21) {
+                        return true;
+                    }
+                } else if ((header & 0x1F) == 5) {
+                    return true;
+                }
+                i += 2;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Letterbox and texture-coordinate math for the full-screen video quad
+ */
+public final class VideoLayout {
+    /** 添加小的边距避免边缘采样问题 */
+    public static final float TEX_MARGIN = 0.001f;
+
+    /** Number of floats in a triangle-strip quad (4 vertices x 2 components) */
+    public static final int QUAD_FLOATS = 8;
+
+    private VideoLayout() {
+    }
+
+    /**
+     * Compute letterbox scale factors so the video keeps its aspect ratio
+     *
+     * @param outScale receives {scaleX, scaleY}
+     * @return false when any dimension is still unknown and outScale is untouched
+     */
+    public static boolean computeLetterboxScale(int videoWidth, int videoHeight,
+                                                int surfaceWidth, int surfaceHeight,
+                                                float[] outScale) {
+        if (videoWidth == 0 || videoHeight == 0 || surfaceWidth == 0 || surfaceHeight == 0) {
+            return false;
+        }
+
+        float videoAspect = (float) videoWidth / videoHeight;
+        float surfaceAspect = (float) surfaceWidth / surfaceHeight;
+
+        // 通过调整顶点坐标来适配宽高比（letterbox方式，不裁剪内容）
+        float scaleX = 1.0f;
+        float scaleY = 1.0f;
+
+        if (surfaceAspect > videoAspect) {
+            // Surface更宽，视频在水平方向缩小，上下填充黑边
+            scaleX = videoAspect / surfaceAspect;
+        } else {
+            // Surface更高，视频在垂直方向缩小，左右填充黑边
+            scaleY = surfaceAspect / videoAspect;
+        }
+
+        outScale[0] = scaleX;
+        outScale[1] = scaleY;
+        return true;
+    }
+
+    /**
+     * Fill a triangle-strip quad scaled around the origin
+     */
+    public static void fillVertexCoords(float scaleX, float scaleY, float[] out) {
+        out[0] = -scaleX; out[1] = -scaleY; // 左下
+        out[2] = scaleX;  out[3] = -scaleY; // 右下
+        out[4] = -scaleX; out[5] = scaleY;  // 左上
+        out[6] = scaleX;  out[7] = scaleY;  // 右上
+    }
+
+    /**
+     * Fill a quad covering a normalized sub-region (y down) of the letterboxed video area
+     */
+    public static void fillRegionVertexCoords(float scaleX, float scaleY,
+                                              float x, float y, float width, float height,
+                                              float[] out) {
+        float left = -scaleX + 2.0f * scaleX * x;
+        float right = left + 2.0f * scaleX * width;
+        float top = scaleY - 2.0f * scaleY * y;
+        float bottom = top - 2.0f * scaleY * height;
+        out[0] = left;  out[1] = bottom; // 左下
+        out[2] = right; out[3] = bottom; // 右下
+        out[4] = left;  out[5] = top;    // 左上
+        out[6] = right; out[7] = top;    // 右上
+    }
+
+    /**
+     * Fill texture coordinates for the quad, inset by margin and flipped vertically
+     */
+    public static void fillTextureCoords(float margin, float[] out) {
+        out[0] = margin;        out[1] = 1.0f - margin; // 左下
+        out[2] = 1.0f - margin; out[3] = 1.0f - margin; // 右下
+        out[4] = margin;        out[5] = margin;        // 左上
+        out[6] = 1.0f - margin; out[7] = margin;        // 右上
+    }
+}
@@ -0,0 +1,97 @@
+package com.autoai.watermarkvideoplayer.core;
+
+/**
+ * Zoom and pan window inside a camera region, driven by pinch and drag gestures.
+ * <p>
+ * 窗口以基准区域内的归一化坐标表示（left/top/span，span = 1/zoom），
+ * 始终限制在基准区域内。手势坐标为摄像头显示区域内的归一化坐标（0-1，y向下）。
+ * 所有状态预先分配，手势事件不产生对象。
+ */
+public class ZoomState {
+    public static final float MIN_ZOOM = 1.0f;
+    public static final float MAX_ZOOM = 8.0f;
+
+    private float left = 0.0f;
+    private float top = 0.0f;
+    private float span = 1.0f;
+
+    /**
+     * Scale around a focus point, keeping the content under the focus in place
+     *
+     * @return true if the window changed
+     */
+    public synchronized boolean scaleBy(float factor, float focusX, float focusY) {
+        if (!(factor > 0.0f)) {
+            return false;
+        }
+        float zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, (1.0f / span) * factor));
+        float newSpan = 1.0f / zoom;
+        if (newSpan == span) {
+            return false;
+        }
+        float fx = clamp01(focusX);
+        float fy = clamp01(focusY);
+        // 焦点下的内容坐标保持不变
+        float contentX = left + fx * span;
+        float contentY = top + fy * span;
+        span = newSpan;
+        left = clampOrigin(contentX - fx * span);
+        top = clampOrigin(contentY - fy * span);
+        return true;
+    }
+
+    /**
+     * Move the window by a fraction of the visible area, e.g. drag distance / view size
+     *
+     * @return true if the window changed
+     */
+    public synchronized boolean panBy(float dx, float dy) {
+        float newLeft = clampOrigin(left + dx * span);
+        float newTop = clampOrigin(top + dy * span);
+        if (newLeft == left && newTop == top) {
+            return false;
+        }
+        left = newLeft;
+        top = newTop;
+        return true;
+    }
+
+    public synchronized void reset() {
+        left = 0.0f;
+        top = 0.0f;
+        span = 1.0f;
+    }
+
+    public synchronized boolean isZoomed() {
+        return span < 1.0f;
+    }
+
+    public synchronized float getZoom() {
+        return 1.0f / span;
+    }
+
+    /**
+     * Map the window into a texture region
+     *
+     * @param base {x, y, width, height} of the unzoomed region
+     * @param out  receives the zoomed {x, y, width, height}; may be the same array as base
+     */
+    public synchronized void apply(float[] base, float[] out) {
+        float x = base[0] + left * base[2];
+        float y = base[1] + top * base[3];
+        float width = base[2] * span;
+        float height = base[3] * span;
+        out[0] = x;
+        out[1] = y;
+        out[2] = width;
+        out[3] = height;
+    }
+
+    private float clampOrigin(float value) {
+        return Math.max(0.0f, Math.min(1.0f - span, value));
+    }
+
+    private static float clamp01(float value) {
+        return Math.max(0.0f, Math.min(1.0f, value));
+    }
+}
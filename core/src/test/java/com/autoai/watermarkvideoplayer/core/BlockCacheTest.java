@@ -0,0 +1,245 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockCacheTest {
+    private static final int BLOCK = 1024;
+    private static final long PREFETCH_TIMEOUT_MS = 2000;
+
+    private BlockCache cache;
+
+    @After
+    public void tearDown() throws IOException {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /**
+     * In-memory source that counts reads per block and can be shortened after opening
+     */
+    private static final class MemorySource implements BlockSource {
+        final byte[] data;
+        final int[] blockReads;
+        volatile int available;
+        volatile boolean failing = false;
+
+        MemorySource(int size) {
+            data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) (i * 31 + i / BLOCK);
+            }
+            blockReads = new int[(size + BLOCK - 1) / BLOCK];
+            available = size;
+        }
+
+        @Override
+        public long size() {
+            return data.length;
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+            if (failing) {
+                throw new IOException("read failed");
+            }
+            synchronized (this) {
+                blockReads[(int) (position / BLOCK)]++;
+                notifyAll();
+            }
+            if (position >= available) {
+                return -1;
+            }
+            int count = (int) Math.min(length, available - position);
+            System.arraycopy(data, (int) position, buffer, offset, count);
+            return count;
+        }
+
+        synchronized int reads(int block) {
+            return blockReads[block];
+        }
+
+        synchronized void awaitRead(int block) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + PREFETCH_TIMEOUT_MS;
+            while (blockReads[block] == 0) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    fail("block " + block + " was not prefetched");
+                }
+                wait(left);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        int read = cache.readAt(position, buffer, 0, length);
+        return Arrays.copyOf(buffer, Math.max(read, 0));
+    }
+
+    @Test
+    public void missThenHitReadsSourceOnce() throws IOException {
+        MemorySource source = new MemorySource(8 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 4, 0, false);
+
+        assertArrayEquals(Arrays.copyOfRange(source.data, 100, 300), read(100, 200));
+        assertArrayEquals(Arrays.copyOfRange(source.data, 500, 900), read(500, 400));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, source.reads(0));
+        assertEquals(BLOCK, cache.getSourceBytes());
+    }
+
+    @Test
+    public void readSpanningBlocksCopiesBoth() throws IOException {
+        MemorySource source = new MemorySource(8 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 4, 0, false);
+
+        assertArrayEquals(Arrays.copyOfRange(source.data, BLOCK - 10, BLOCK + 10), read(BLOCK - 10, 20));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void endOfSourceReturnsMinusOne() throws IOException {
+        MemorySource source = new MemorySource(2 * BLOCK + 100);
+        cache = new BlockCache(source, BLOCK, 4, 0, false);
+
+        byte[] buffer = new byte[BLOCK];
+        assertEquals(100, cache.readAt(2 * BLOCK, buffer, 0, BLOCK));
+        assertEquals(-1, cache.readAt(2 * BLOCK + 100, buffer, 0, BLOCK));
+        assertEquals(0, cache.readAt(0, buffer, 0, 0));
+    }
+
+    @Test
+    public void truncatedSourceReturnsMinusOneOnFirstRead() throws IOException {
+        MemorySource source = new MemorySource(4 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 4, 0, false);
+        // 打开后文件变短，缓存记录的大小仍是原值
+        source.available = 2 * BLOCK;
+
+        assertEquals(-1, cache.readAt(3 * BLOCK, new byte[100], 0, 100));
+    }
+
+    @Test
+    public void leastRecentlyUsedBlockIsEvicted() throws IOException {
+        MemorySource source = new MemorySource(8 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 3, 0, false);
+
+        read(0, 10);
+        read(BLOCK, 10);
+        read(2 * BLOCK, 10);
+        // 访问块0使块1成为最久未用
+        read(0, 10);
+        read(3 * BLOCK, 10);
+        assertEquals(3, cache.getCachedBlocks());
+
+        read(0, 10);
+        assertEquals(1, source.reads(0));
+        read(BLOCK, 10);
+        assertEquals(2, source.reads(1));
+    }
+
+    @Test
+    public void sequentialReadsPrefetchAhead() throws Exception {
+        MemorySource source = new MemorySource(16 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 8, 3, false);
+
+        read(0, BLOCK);
+        read(BLOCK, BLOCK);
+        source.awaitRead(4);
+        assertTrue(cache.getPrefetches() >= 3);
+
+        long misses = cache.getMisses();
+        for (int block = 2; block <= 4; block++) {
+            assertArrayEquals(Arrays.copyOfRange(source.data, block * BLOCK, (block + 1) * BLOCK),
+                    read(block * BLOCK, BLOCK));
+            assertEquals(1, source.reads(block));
+        }
+        assertEquals(misses, cache.getMisses());
+    }
+
+    @Test
+    public void randomAccessDoesNotPrefetch() throws IOException {
+        MemorySource source = new MemorySource(16 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 8, 3, false);
+
+        read(0, 10);
+        read(9 * BLOCK, 10);
+        read(4 * BLOCK, 10);
+        assertEquals(0, cache.getPrefetches());
+    }
+
+    @Test
+    public void loopAwareReadAheadWrapsToStart() throws Exception {
+        MemorySource source = new MemorySource(8 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 6, 2, true);
+
+        read(6 * BLOCK, 10);
+        read(7 * BLOCK, 10);
+        source.awaitRead(1);
+        assertEquals(1, source.reads(0));
+
+        long misses = cache.getMisses();
+        read(0, 10);
+        assertEquals(misses, cache.getMisses());
+        assertEquals(1, source.reads(0));
+    }
+
+    @Test
+    public void loopAwareReadAheadDeeperThanFileStaysInRange() throws Exception {
+        MemorySource source = new MemorySource(2 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 10, 8, true);
+
+        read(0, 10);
+        read(10, 10);
+        source.awaitRead(1);
+        read(BLOCK, 10);
+        // 只有两个块，预读不应越过文件末尾或重复加载
+        assertEquals(1, cache.getPrefetches());
+        assertEquals(2, cache.getCachedBlocks());
+        assertEquals(1, source.reads(0));
+        assertEquals(1, source.reads(1));
+    }
+
+    @Test
+    public void readAheadStopsAtEndWithoutLoop() throws Exception {
+        MemorySource source = new MemorySource(8 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 6, 2, false);
+
+        read(6 * BLOCK, 10);
+        read(7 * BLOCK, 10);
+        assertEquals(0, cache.getPrefetches());
+        assertEquals(0, source.reads(0));
+    }
+
+    @Test
+    public void sourceErrorIsThrownAndNotCached() throws IOException {
+        MemorySource source = new MemorySource(4 * BLOCK);
+        cache = new BlockCache(source, BLOCK, 4, 0, false);
+
+        source.failing = true;
+        try {
+            read(0, 10);
+            fail("expected IOException");
+        } catch (IOException expected) {
+            // 预期
+        }
+        assertEquals(0, cache.getCachedBlocks());
+
+        source.failing = false;
+        assertArrayEquals(Arrays.copyOfRange(source.data, 0, 10), read(0, 10));
+    }
+}
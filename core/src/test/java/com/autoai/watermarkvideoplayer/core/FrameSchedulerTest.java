@@ -0,0 +1,40 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameSchedulerTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    public void fullLevelDrawsEveryFrameImmediately() {
+        FrameScheduler scheduler = new FrameScheduler(RenderLevel.FULL.pacingIntervalNanos());
+        scheduler.onDrawStarted(100 * MS);
+        // 即使两帧间隔远小于16.7ms也不延迟
+        assertEquals(FrameScheduler.DRAW_NOW, scheduler.onFrameAvailable(101 * MS));
+        scheduler.onDrawStarted(101 * MS);
+        assertEquals(FrameScheduler.DRAW_NOW, scheduler.onFrameAvailable(102 * MS));
+    }
+
+    @Test
+    public void reducedLevelDefersOneDrawPerInterval() {
+        FrameScheduler scheduler = new FrameScheduler(RenderLevel.REDUCED_RATE.pacingIntervalNanos());
+        long interval = RenderLevel.REDUCED_RATE.minFrameIntervalNanos();
+        scheduler.onDrawStarted(100 * MS);
+        assertEquals(100 * MS + interval - 110 * MS, scheduler.onFrameAvailable(110 * MS));
+        assertEquals(FrameScheduler.ALREADY_SCHEDULED, scheduler.onFrameAvailable(120 * MS));
+
+        scheduler.onDeferredDraw();
+        scheduler.onDrawStarted(100 * MS + interval);
+        assertEquals(FrameScheduler.DRAW_NOW, scheduler.onFrameAvailable(100 * MS + 2 * interval));
+    }
+
+    @Test
+    public void returningToFullStopsPacing() {
+        FrameScheduler scheduler = new FrameScheduler(RenderLevel.MINIMAL.pacingIntervalNanos());
+        scheduler.onDrawStarted(100 * MS);
+        scheduler.setMinFrameIntervalNanos(RenderLevel.FULL.pacingIntervalNanos());
+        assertEquals(FrameScheduler.DRAW_NOW, scheduler.onFrameAvailable(101 * MS));
+    }
+}
@@ -0,0 +1,99 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrameTapQueueTest {
+    private static final long MS = 1_000_000L;
+
+    private static void produce(FrameTapQueue<String> queue, String frame) {
+        assertTrue(queue.tryBeginFrame());
+        assertNull(queue.offer(frame));
+    }
+
+    @Test
+    public void fullQueueEvictsTheOldestFrame() throws Exception {
+        FrameTapQueue<String> queue = new FrameTapQueue<>(2, 1);
+        produce(queue, "f1");
+        produce(queue, "f2");
+
+        assertTrue(queue.tryBeginFrame());
+        assertEquals("f1", queue.offer("f3"));
+        assertEquals(1, queue.getDroppedFrames());
+        assertEquals(2, queue.size());
+
+        assertEquals("f2", queue.take(0, 0));
+        assertEquals("f3", queue.take(0, 0));
+        assertEquals(2, queue.getDeliveredFrames());
+        assertEquals(3, queue.getProducedFrames());
+    }
+
+    @Test
+    public void renderSkipsFramesWhilePendingIsFull() {
+        FrameTapQueue<String> queue = new FrameTapQueue<>(4, 2);
+        assertTrue(queue.tryBeginFrame());
+        assertTrue(queue.tryBeginFrame());
+        // 两帧仍在读回中，第三帧跳过
+        assertFalse(queue.tryBeginFrame());
+        assertEquals(1, queue.getSkippedFrames());
+        assertEquals(2, queue.getProducedFrames());
+
+        assertNull(queue.offer("f1"));
+        assertTrue(queue.tryBeginFrame());
+        assertEquals(3, queue.getProducedFrames());
+    }
+
+    @Test
+    public void cancelFrameRollsBackTheReservation() {
+        FrameTapQueue<String> queue = new FrameTapQueue<>(2, 1);
+        assertTrue(queue.tryBeginFrame());
+        queue.cancelFrame();
+        assertEquals(0, queue.getProducedFrames());
+
+        // 槽位已释放，下一帧不会被跳过
+        assertTrue(queue.tryBeginFrame());
+        assertEquals(0, queue.getSkippedFrames());
+        assertEquals(1, queue.getProducedFrames());
+
+        // 没有预留时取消不改变计数
+        queue.cancelFrame();
+        queue.cancelFrame();
+        assertEquals(0, queue.getProducedFrames());
+    }
+
+    @Test
+    public void offerAfterCloseHandsTheFrameBack() throws Exception {
+        FrameTapQueue<String> queue = new FrameTapQueue<>(2, 2);
+        produce(queue, "f1");
+        assertTrue(queue.tryBeginFrame());
+        queue.close();
+
+        assertSame("f2", queue.offer("f2"));
+        assertFalse(queue.tryBeginFrame());
+        assertNull(queue.take(0, 0));
+        assertEquals("f1", queue.drain());
+        assertNull(queue.drain());
+        assertEquals(0, queue.getDeliveredFrames());
+    }
+
+    @Test
+    public void deliveredFpsDropsToZeroWhenDeliveryStalls() throws Exception {
+        FrameTapQueue<Integer> queue = new FrameTapQueue<>(4, 1);
+        long now = 0;
+        for (int i = 0; i <= 10; i++) {
+            assertTrue(queue.tryBeginFrame());
+            queue.offer(i);
+            now = i * 100 * MS;
+            assertEquals(Integer.valueOf(i), queue.take(0, now));
+        }
+        assertEquals(10.0f, queue.getDeliveredFps(now), 1.5f);
+        assertEquals(10.0f, queue.getDeliveredFps(now + 1500 * MS), 1.5f);
+        // 超过两个统计窗口没有交付
+        assertEquals(0.0f, queue.getDeliveredFps(now + 2000 * MS), 0.0f);
+    }
+}
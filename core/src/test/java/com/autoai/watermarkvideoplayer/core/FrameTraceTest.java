@@ -0,0 +1,60 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FrameTraceTest {
+    private static final long VSYNC = 16_666_667L;
+
+    @Test
+    public void writeThenReadRoundTrips() throws IOException {
+        FrameTrace trace = new FrameTrace(8, VSYNC);
+        trace.layout(CameraPosition.TOP_RIGHT, 0.15f, 1_000);
+        trace.frameAvailable(2, 5_000_000);
+        // 绘制按开始时间记录，可早于前一事件
+        trace.draw(4_000_000, 2_500_000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        FrameTrace read = FrameTrace.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(VSYNC, read.getVsyncNanos());
+        assertFalse(read.isTruncated());
+        assertEquals(3, read.size());
+        assertEquals(FrameTrace.LAYOUT, read.getType(0));
+        assertEquals(CameraPosition.TOP_RIGHT, read.getLayoutPosition(0));
+        assertEquals(0.15f, read.getLayoutWatermarkHeight(0), 0.0f);
+        assertEquals(FrameTrace.FRAME, read.getType(1));
+        assertEquals(2, read.getStream(1));
+        assertEquals(5_000_000, read.getTimeNanos(1));
+        assertEquals(FrameTrace.DRAW, read.getType(2));
+        assertEquals(4_000_000, read.getTimeNanos(2));
+        assertEquals(2_500_000, read.getValue(2));
+    }
+
+    @Test
+    public void eventCountAboveMaxCapacityIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(0x46545243);
+        data.writeInt(1);
+        data.writeLong(VSYNC);
+        data.writeBoolean(false);
+        data.writeInt(FrameTrace.MAX_CAPACITY + 1);
+        try {
+            FrameTrace.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupt frame trace"));
+        }
+    }
+}
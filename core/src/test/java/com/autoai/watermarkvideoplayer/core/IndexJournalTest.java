@@ -0,0 +1,115 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexJournalTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File journalFile(String content) throws IOException {
+        File file = temp.newFile("journal");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static IndexJournal load(File file) throws IOException {
+        IndexJournal journal = new IndexJournal(file);
+        journal.load();
+        return journal;
+    }
+
+    @Test
+    public void laterRecordsOverrideEarlierOnes() throws IOException {
+        File file = temp.newFile("journal");
+        IndexJournal journal = load(file);
+        journal.record("/sd/a.mp4", 16, 100, IndexJournal.STATE_QUEUED);
+        journal.record("/sd/b.mp4", 32, 200, IndexJournal.STATE_QUEUED);
+        journal.record("/sd/a.mp4", 16, 100, IndexJournal.STATE_DONE);
+        journal.close();
+
+        IndexJournal reloaded = load(file);
+        assertEquals(IndexJournal.STATE_DONE, reloaded.getState("/sd/a.mp4", 16, 100));
+        assertEquals(IndexJournal.STATE_QUEUED, reloaded.getState("/sd/b.mp4", 32, 200));
+        // 大小或修改时间变化视为新文件
+        assertEquals(0, reloaded.getState("/sd/a.mp4", 17, 100));
+        assertEquals(0, reloaded.getState("/sd/a.mp4", 16, 101));
+        assertEquals(Collections.singletonList("/sd/b.mp4"), reloaded.getUnfinished());
+    }
+
+    @Test
+    public void tornLastLineIsIgnoredOnLoad() throws IOException {
+        File file = journalFile("D\t16\t100\t/sd/a.mp4\nD\t16\t100\t/sd/b.m");
+        IndexJournal journal = load(file);
+
+        assertEquals(IndexJournal.STATE_DONE, journal.getState("/sd/a.mp4", 16, 100));
+        assertEquals(0, journal.getState("/sd/b.m", 16, 100));
+    }
+
+    @Test
+    public void recordAfterTornLineSurvivesReload() throws IOException {
+        File file = journalFile("D\t16\t100\t/sd/a.m");
+        IndexJournal journal = load(file);
+        journal.record("/sd/b.mp4", 32, 200, IndexJournal.STATE_QUEUED);
+        journal.close();
+
+        IndexJournal reloaded = load(file);
+        assertEquals(0, reloaded.getState("/sd/a.m", 16, 100));
+        assertEquals(IndexJournal.STATE_QUEUED, reloaded.getState("/sd/b.mp4", 32, 200));
+        assertEquals(Collections.singletonList("/sd/b.mp4"), reloaded.getUnfinished());
+    }
+
+    @Test
+    public void recordWithoutLoadAlsoCutsTornLine() throws IOException {
+        File file = journalFile("Q\t16\t100\t/sd/a.mp4\nD\t16\t1");
+        IndexJournal journal = new IndexJournal(file);
+        journal.record("/sd/b.mp4", 32, 200, IndexJournal.STATE_DONE);
+        journal.close();
+
+        assertEquals(Arrays.asList("Q\t16\t100\t/sd/a.mp4", "D\t32\t200\t/sd/b.mp4"), lines(file));
+    }
+
+    @Test
+    public void manySupersededRecordsAreCompactedOnLoad() throws IOException {
+        File file = temp.newFile("journal");
+        IndexJournal journal = load(file);
+        for (int i = 0; i < 40; i++) {
+            journal.record("/sd/a.mp4", 16, 100, IndexJournal.STATE_QUEUED);
+            journal.record("/sd/b.mp4", 32, 200, IndexJournal.STATE_QUEUED);
+        }
+        journal.record("/sd/a.mp4", 16, 100, IndexJournal.STATE_DONE);
+        journal.close();
+        assertEquals(81, lines(file).size());
+
+        IndexJournal reloaded = load(file);
+        // 每个文件只保留最后一条记录，顺序按最后写入
+        assertEquals(Arrays.asList("Q\t32\t200\t/sd/b.mp4", "D\t16\t100\t/sd/a.mp4"), lines(file));
+        assertEquals(IndexJournal.STATE_DONE, reloaded.getState("/sd/a.mp4", 16, 100));
+        assertEquals(Collections.singletonList("/sd/b.mp4"), reloaded.getUnfinished());
+    }
+
+    @Test
+    public void fewRecordsAreNotCompacted() throws IOException {
+        File file = journalFile("Q\t16\t100\t/sd/a.mp4\nD\t16\t100\t/sd/a.mp4\n");
+        load(file);
+        assertEquals(2, lines(file).size());
+    }
+
+    private static List<String> lines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,222 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexSchedulerTest {
+    private static final long TIMEOUT_MS = 2000;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File segment(String name) throws IOException {
+        File file = temp.newFile(name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[16]);
+        }
+        return file;
+    }
+
+    /**
+     * Records the order jobs run in; the first job can be held until {@link #release}
+     */
+    private static final class RecordingTask implements IndexScheduler.Task {
+        final List<String> order = new ArrayList<>();
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished;
+        volatile boolean cached = false;
+
+        RecordingTask(int jobs) {
+            finished = new CountDownLatch(jobs);
+        }
+
+        @Override
+        public boolean isCached(IndexScheduler.Job job) {
+            return cached;
+        }
+
+        @Override
+        public void run(IndexScheduler.Job job) throws Exception {
+            boolean first;
+            synchronized (order) {
+                first = order.isEmpty();
+                order.add(job.file.getName());
+            }
+            if (first) {
+                firstStarted.countDown();
+                release.await();
+            }
+            finished.countDown();
+        }
+    }
+
+    private static void awaitRemaining(IndexScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (scheduler.getRemaining() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, scheduler.getRemaining());
+    }
+
+    @Test
+    public void interruptedJobReleasesRunningCount() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        IndexScheduler scheduler = new IndexScheduler(new IndexScheduler.Task() {
+            @Override
+            public boolean isCached(IndexScheduler.Job job) {
+                return false;
+            }
+
+            @Override
+            public void run(IndexScheduler.Job job) throws Exception {
+                started.countDown();
+                // 阻塞到关闭时被中断
+                Thread.sleep(Long.MAX_VALUE);
+            }
+        }, new IndexJournal(temp.newFile("journal")), 1);
+        scheduler.start();
+        File file = segment("a.mp4");
+        assertTrue(scheduler.enqueue(file));
+        assertTrue(started.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getRemaining());
+
+        scheduler.shutdown();
+        awaitRemaining(scheduler, 0);
+    }
+
+    @Test
+    public void pathIsReleasedOnlyAfterResultIsRecorded() throws Exception {
+        IndexJournal journal = new IndexJournal(temp.newFile("journal"));
+        File file = segment("a.mp4");
+        int[] stateWhenFinished = new int[1];
+        CountDownLatch finished = new CountDownLatch(1);
+        IndexScheduler scheduler = new IndexScheduler(new IndexScheduler.Task() {
+            @Override
+            public boolean isCached(IndexScheduler.Job job) {
+                return false;
+            }
+
+            @Override
+            public void run(IndexScheduler.Job job) {
+            }
+        }, journal, 1);
+        scheduler.setListener(new IndexScheduler.Listener() {
+            @Override
+            public void onJobFinished(IndexScheduler.Job job, Exception error, int remaining) {
+                stateWhenFinished[0] = journal.getState(job.file.getPath(), job.size, job.lastModified);
+                finished.countDown();
+            }
+
+            @Override
+            public void onJournalError(IOException e) {
+            }
+        });
+        scheduler.start();
+        assertTrue(scheduler.enqueue(file));
+        assertTrue(finished.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        assertEquals(IndexJournal.STATE_DONE, stateWhenFinished[0]);
+        assertEquals(0, scheduler.getRemaining());
+        // 结果缓存缺失时同一文件可以重新入队
+        assertTrue(scheduler.enqueue(file));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void openFileJumpsTheQueue() throws Exception {
+        RecordingTask task = new RecordingTask(4);
+        IndexScheduler scheduler = new IndexScheduler(task, new IndexJournal(temp.newFile("journal")), 1);
+        scheduler.start();
+        assertTrue(scheduler.enqueue(segment("a.mp4")));
+        assertTrue(task.firstStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        // 唯一的工作线程被占用时后续任务排队
+        assertTrue(scheduler.enqueue(segment("b.mp4")));
+        assertTrue(scheduler.enqueue(segment("c.mp4")));
+        File open = segment("d.mp4");
+        assertTrue(scheduler.enqueue(open));
+        scheduler.setOpenFile(open);
+        task.release.countDown();
+
+        assertTrue(task.finished.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        synchronized (task.order) {
+            assertEquals(Arrays.asList("a.mp4", "d.mp4", "b.mp4", "c.mp4"), task.order);
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void resumeRequeuesOnlyUnfinishedJobs() throws Exception {
+        File journalFile = temp.newFile("journal");
+        File queued = segment("a.mp4");
+        File done = segment("b.mp4");
+        IndexJournal previous = new IndexJournal(journalFile);
+        previous.record(queued.getPath(), queued.length(), queued.lastModified(), IndexJournal.STATE_QUEUED);
+        previous.record(done.getPath(), done.length(), done.lastModified(), IndexJournal.STATE_DONE);
+        previous.close();
+
+        RecordingTask task = new RecordingTask(1);
+        task.cached = true;
+        // 不启动工作线程，只检查排队结果
+        IndexScheduler scheduler = new IndexScheduler(task, new IndexJournal(journalFile), 1);
+        assertEquals(1, scheduler.resume());
+        assertEquals(1, scheduler.getRemaining());
+        // 已排队的路径不会重复入队
+        assertFalse(scheduler.enqueue(queued));
+        assertFalse(scheduler.enqueue(done));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void doneFileIsSkippedOnlyWhileResultsAreCached() throws Exception {
+        IndexJournal journal = new IndexJournal(temp.newFile("journal"));
+        File file = segment("a.mp4");
+        journal.record(file.getPath(), file.length(), file.lastModified(), IndexJournal.STATE_DONE);
+        RecordingTask task = new RecordingTask(1);
+        IndexScheduler scheduler = new IndexScheduler(task, journal, 1);
+
+        task.cached = true;
+        assertFalse(scheduler.enqueue(file));
+        task.cached = false;
+        assertTrue(scheduler.enqueue(file));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void failedFileIsRetriedOnlyAfterItChanges() throws Exception {
+        IndexJournal journal = new IndexJournal(temp.newFile("journal"));
+        File file = segment("a.mp4");
+        journal.record(file.getPath(), file.length(), file.lastModified(), IndexJournal.STATE_FAILED);
+        IndexScheduler scheduler = new IndexScheduler(new RecordingTask(1), journal, 1);
+
+        assertFalse(scheduler.enqueue(file));
+        // 录像仍在写入，大小变化后视为新版本
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[16]);
+        }
+        assertTrue(scheduler.enqueue(file));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void parallelismLeavesACoreAndIsBoundByDecoders() {
+        assertEquals(2, IndexScheduler.parallelismFor(8, 2));
+        assertEquals(7, IndexScheduler.parallelismFor(8, 16));
+        assertEquals(1, IndexScheduler.parallelismFor(1, 4));
+        assertEquals(1, IndexScheduler.parallelismFor(4, 0));
+    }
+}
@@ -0,0 +1,342 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives receiver, demuxer and jitter buffer over a loopback HTTP feed generated in the test
+ */
+public class LiveTsLoopbackTest {
+    private static final int PMT_PID = 0x100;
+    private static final int VIDEO_PID = 0x101;
+    private static final long FRAME_90K = 3000;
+    private static final long RUN_TIMEOUT_MS = 5000;
+
+    private ServerSocket server;
+    private Thread serverThread;
+
+    @After
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        if (serverThread != null) {
+            serverThread.join(RUN_TIMEOUT_MS);
+        }
+    }
+
+    /** Wires demuxer output into a jitter buffer, as LiveSourcePlayer does */
+    private static final class Pipeline implements TsDemuxer.Listener, LiveTsReceiver.Listener {
+        final JitterBuffer jitterBuffer;
+        String mime;
+        IOException error;
+        int accessUnits = 0;
+
+        Pipeline(JitterBuffer jitterBuffer) {
+            this.jitterBuffer = jitterBuffer;
+        }
+
+        @Override
+        public void onVideoFormat(String mime) {
+            this.mime = mime;
+        }
+
+        @Override
+        public void onAccessUnit(byte[] data, int offset, int size, long ptsUs, long dtsUs, boolean keyFrame) {
+            accessUnits++;
+            jitterBuffer.offer(data, offset, size, ptsUs, dtsUs, keyFrame, System.nanoTime());
+        }
+
+        @Override
+        public void onReceiveError(IOException e) {
+            error = e;
+        }
+    }
+
+    @Test
+    public void framesSurviveReceiverDemuxerAndJitterBuffer() throws Exception {
+        int frames = 60;
+        String url = serve(buildStream(frames, 30), "200 OK");
+        Pipeline pipeline = new Pipeline(new JitterBuffer(64, 100_000, 10_000_000));
+        LiveTsReceiver receiver = new LiveTsReceiver(url, new TsDemuxer(pipeline), pipeline);
+        receive(receiver);
+
+        assertEquals(null, pipeline.error);
+        assertEquals(TsDemuxer.MIME_AVC, pipeline.mime);
+        assertEquals(frames, pipeline.accessUnits);
+        assertEquals(buildStream(frames, 30).length, receiver.getBytesReceived());
+
+        List<JitterBuffer.Frame> out = drain(pipeline.jitterBuffer);
+        assertEquals(frames, out.size());
+        for (int i = 0; i < frames; i++) {
+            JitterBuffer.Frame frame = out.get(i);
+            assertEquals(i * FRAME_90K * 100 / 9, frame.ptsUs);
+            assertEquals(i % 30 == 0, frame.keyFrame);
+            assertArrayEquals(accessUnit(i, i % 30 == 0), Arrays.copyOf(frame.data, frame.size));
+        }
+        assertEquals(0, pipeline.jitterBuffer.getDroppedFrames());
+    }
+
+    @Test
+    public void burstBeyondMaxDelaySkipsToKeyFrame() throws Exception {
+        // 无节流的发送相当于一次突发，缓冲时长超过上限后应跳到关键帧追赶
+        String url = serve(buildStream(90, 30), "200 OK");
+        Pipeline pipeline = new Pipeline(new JitterBuffer(120, 100_000, 500_000));
+        receive(new LiveTsReceiver(url, new TsDemuxer(pipeline), pipeline));
+
+        JitterBuffer buffer = pipeline.jitterBuffer;
+        assertEquals(90, pipeline.accessUnits);
+        // 只能跳到关键帧：第30帧和第60帧到达时各追赶一次，最后保留一个GOP
+        assertEquals(2, buffer.getCatchUps());
+        assertEquals(60, buffer.getDroppedFrames());
+
+        List<JitterBuffer.Frame> out = drain(buffer);
+        assertEquals(30, out.size());
+        assertTrue(out.get(0).keyFrame);
+        assertEquals(60 * FRAME_90K * 100 / 9, out.get(0).ptsUs);
+        for (int i = 1; i < out.size(); i++) {
+            assertEquals(out.get(i - 1).ptsUs + FRAME_90K * 100 / 9, out.get(i).ptsUs, 1);
+        }
+    }
+
+    @Test
+    public void malformedPesHeaderIsDroppedAndStreamContinues() throws Exception {
+        int frames = 60;
+        byte[] stream = buildStream(frames, 30, 20);
+        String url = serve(stream, "200 OK");
+        Pipeline pipeline = new Pipeline(new JitterBuffer(64, 100_000, 10_000_000));
+        LiveTsReceiver receiver = new LiveTsReceiver(url, new TsDemuxer(pipeline), pipeline);
+        receive(receiver);
+
+        assertEquals(null, pipeline.error);
+        assertEquals(stream.length, receiver.getBytesReceived());
+        assertEquals(0, receiver.getDiscardedChunks());
+        // 损坏的PES单元被丢弃，前后的帧都完整到达
+        assertEquals(frames, pipeline.accessUnits);
+        List<JitterBuffer.Frame> out = drain(pipeline.jitterBuffer);
+        assertEquals(frames, out.size());
+        assertArrayEquals(accessUnit(frames - 1, false), Arrays.copyOf(out.get(frames - 1).data,
+                out.get(frames - 1).size));
+    }
+
+    @Test
+    public void multicastIsDetectedFromAddressLiteralsOnly() {
+        TsDemuxer demuxer = new TsDemuxer(null);
+        assertTrue(new LiveTsReceiver("udp://239.1.2.3:5000", demuxer, null).isMulticast());
+        assertTrue(new LiveTsReceiver("udp://224.0.0.251:5000", demuxer, null).isMulticast());
+        assertTrue(new LiveTsReceiver("udp://[FF02::1]:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("udp://127.0.0.1:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("udp://240.0.0.1:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("udp://[::1]:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("udp://:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("udp://camera.local:5000", demuxer, null).isMulticast());
+        assertFalse(new LiveTsReceiver("http://239.1.2.3:5000/live.ts", demuxer, null).isMulticast());
+    }
+
+    @Test
+    public void httpErrorIsReportedToListener() throws Exception {
+        String url = serve(new byte[0], "404 Not Found");
+        Pipeline pipeline = new Pipeline(new JitterBuffer(8, 100_000, 500_000));
+        receive(new LiveTsReceiver(url, new TsDemuxer(pipeline), pipeline));
+
+        assertNotNull(pipeline.error);
+        assertEquals(0, pipeline.accessUnits);
+    }
+
+    private static void receive(LiveTsReceiver receiver) throws InterruptedException {
+        Thread thread = new Thread(receiver, "LiveTsReceiver-test");
+        thread.start();
+        thread.join(RUN_TIMEOUT_MS);
+        receiver.close();
+        assertFalse("receiver did not finish", thread.isAlive());
+    }
+
+    private static List<JitterBuffer.Frame> drain(JitterBuffer buffer) {
+        List<JitterBuffer.Frame> frames = new ArrayList<>();
+        JitterBuffer.Frame frame;
+        while ((frame = buffer.poll(Long.MAX_VALUE)) != null) {
+            // 复制后归还，池中的帧会被后续offer复用
+            JitterBuffer.Frame copy = new JitterBuffer.Frame();
+            copy.data = Arrays.copyOf(frame.data, frame.size);
+            copy.size = frame.size;
+            copy.ptsUs = frame.ptsUs;
+            copy.keyFrame = frame.keyFrame;
+            frames.add(copy);
+            buffer.recycle(frame);
+        }
+        return frames;
+    }
+
+    /**
+     * Serve one HTTP/1.0 response on loopback, writing the body in uneven chunks so that
+     * TS packets are split across reads
+     */
+    private String serve(byte[] body, String status) throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        serverThread = new Thread(() -> {
+            try (Socket client = server.accept()) {
+                readRequestHeaders(client.getInputStream());
+                OutputStream out = client.getOutputStream();
+                out.write(("HTTP/1.0 " + status + "\r\nContent-Type: video/mp2t\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                for (int pos = 0, chunk = 1000; pos < body.length; pos += chunk, chunk = 1000 + pos % 377) {
+                    out.write(body, pos, Math.min(chunk, body.length - pos));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // 测试结束时关闭
+            }
+        }, "LoopbackTs-test");
+        serverThread.start();
+        return "http://127.0.0.1:" + server.getLocalPort() + "/live.ts";
+    }
+
+    private static void readRequestHeaders(InputStream in) throws IOException {
+        int matched = 0;
+        byte[] end = {'\r', '\n', '\r', '\n'};
+        int b;
+        while (matched < end.length && (b = in.read()) != -1) {
+            matched = b == end[matched] ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+    }
+
+    private static byte[] buildStream(int frames, int gop) {
+        return buildStream(frames, gop, -1);
+    }
+
+    /**
+     * @param malformedAfter frame after which a PES whose header length runs past the
+     *                       packet is inserted, or -1 for none
+     */
+    private static byte[] buildStream(int frames, int gop, int malformedAfter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] continuity = new int[1];
+        writePsi(out, 0, pat());
+        writePsi(out, PMT_PID, pmt());
+        for (int i = 0; i < frames; i++) {
+            writePes(out, accessUnit(i, i % gop == 0), i * FRAME_90K, continuity);
+            if (i == malformedAfter) {
+                writeMalformedPes(out, continuity);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeMalformedPes(ByteArrayOutputStream out, int[] continuity) {
+        byte[] packet = new byte[TsDemuxer.PACKET_SIZE];
+        Arrays.fill(packet, (byte) 0x80);
+        packet[0] = 0x47;
+        packet[1] = (byte) (0x40 | (VIDEO_PID >> 8));
+        packet[2] = (byte) VIDEO_PID;
+        packet[3] = (byte) (0x10 | continuity[0]);
+        continuity[0] = (continuity[0] + 1) & 0x0F;
+        byte[] header = {0, 0, 1, (byte) 0xE0, 0, 0, (byte) 0x80, (byte) 0x80, (byte) 0xFF};
+        System.arraycopy(header, 0, packet, 4, header.length);
+        out.write(packet, 0, packet.length);
+    }
+
+    /**
+     * Annex-B access unit: AUD, then an IDR or non-IDR slice whose bytes identify the frame
+     */
+    private static byte[] accessUnit(int index, boolean key) {
+        int size = 400 + (index * 97) % 1500;
+        byte[] data = new byte[size];
+        byte[] header = {0, 0, 0, 1, 0x09, (byte) 0xF0, 0, 0, 0, 1, (byte) (key ? 0x65 : 0x41)};
+        System.arraycopy(header, 0, data, 0, header.length);
+        for (int i = header.length; i < size; i++) {
+            // 避免在负载中出现起始码
+            data[i] = (byte) (0x80 | ((index + i) & 0x7F));
+        }
+        return data;
+    }
+
+    private static byte[] pat() {
+        return new byte[]{
+                0x00, (byte) 0xB0, 13, 0x00, 0x01, (byte) 0xC1, 0x00, 0x00,
+                0x00, 0x01, (byte) (0xE0 | (PMT_PID >> 8)), (byte) PMT_PID,
+                0, 0, 0, 0
+        };
+    }
+
+    private static byte[] pmt() {
+        return new byte[]{
+                0x02, (byte) 0xB0, 18, 0x00, 0x01, (byte) 0xC1, 0x00, 0x00,
+                (byte) (0xE0 | (VIDEO_PID >> 8)), (byte) VIDEO_PID, (byte) 0xF0, 0x00,
+                0x1B, (byte) (0xE0 | (VIDEO_PID >> 8)), (byte) VIDEO_PID, (byte) 0xF0, 0x00,
+                0, 0, 0, 0
+        };
+    }
+
+    private static void writePsi(ByteArrayOutputStream out, int pid, byte[] section) {
+        byte[] packet = new byte[TsDemuxer.PACKET_SIZE];
+        Arrays.fill(packet, (byte) 0xFF);
+        packet[0] = 0x47;
+        packet[1] = (byte) (0x40 | (pid >> 8));
+        packet[2] = (byte) pid;
+        packet[3] = 0x10;
+        packet[4] = 0; // pointer field
+        System.arraycopy(section, 0, packet, 5, section.length);
+        out.write(packet, 0, packet.length);
+    }
+
+    private static void writePes(ByteArrayOutputStream out, byte[] payload, long pts90k, int[] continuity) {
+        byte[] pes = new byte[14 + payload.length];
+        pes[2] = 1;
+        pes[3] = (byte) 0xE0;
+        pes[6] = (byte) 0x80;
+        pes[7] = (byte) 0x80;
+        pes[8] = 5;
+        pes[9] = (byte) (0x21 | ((pts90k >> 29) & 0x0E));
+        pes[10] = (byte) (pts90k >> 22);
+        pes[11] = (byte) (((pts90k >> 14) & 0xFE) | 1);
+        pes[12] = (byte) (pts90k >> 7);
+        pes[13] = (byte) (((pts90k << 1) & 0xFE) | 1);
+        System.arraycopy(payload, 0, pes, 14, payload.length);
+
+        for (int pos = 0; pos < pes.length; ) {
+            byte[] packet = new byte[TsDemuxer.PACKET_SIZE];
+            packet[0] = 0x47;
+            packet[1] = (byte) ((pos == 0 ? 0x40 : 0) | (VIDEO_PID >> 8));
+            packet[2] = (byte) VIDEO_PID;
+            int room = TsDemuxer.PACKET_SIZE - 4;
+            int remaining = pes.length - pos;
+            int offset = 4;
+            if (remaining < room) {
+                // 最后一个包用自适应字段填充
+                int stuffing = room - remaining;
+                packet[3] = (byte) (0x30 | continuity[0]);
+                packet[4] = (byte) (stuffing - 1);
+                if (stuffing > 1) {
+                    packet[5] = 0;
+                    Arrays.fill(packet, 6, 4 + stuffing, (byte) 0xFF);
+                }
+                offset += stuffing;
+            } else {
+                packet[3] = (byte) (0x10 | continuity[0]);
+            }
+            continuity[0] = (continuity[0] + 1) & 0x0F;
+            int copy = TsDemuxer.PACKET_SIZE - offset;
+            System.arraycopy(pes, pos, packet, offset, copy);
+            pos += copy;
+            out.write(packet, 0, packet.length);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Replays the traces under src/test/resources/governor through a default
+ * {@link RenderGovernor} and checks every level change
+ */
+public class RenderGovernorTraceTest {
+    private static final long DEGRADE_HOLD_MS = 2000;
+    private static final long RECOVER_HOLD_MS = 10_000;
+
+    private static final class Change {
+        final long timeMs;
+        final RenderLevel from;
+        final RenderLevel to;
+        final RenderGovernor.Reason reason;
+
+        Change(long timeMs, RenderLevel from, RenderLevel to, RenderGovernor.Reason reason) {
+            this.timeMs = timeMs;
+            this.from = from;
+            this.to = to;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return timeMs + ":" + from + "->" + to + "(" + reason + ")";
+        }
+    }
+
+    private static List<Change> replay(String fixture) throws IOException {
+        InputStream in = RenderGovernorTraceTest.class.getResourceAsStream("/governor/" + fixture);
+        assertNotNull("missing fixture " + fixture, in);
+        List<GovernorTrace.Event> events;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            events = GovernorTrace.read(reader);
+        }
+
+        RenderGovernor governor = new RenderGovernor();
+        List<Change> changes = new ArrayList<>();
+        long[] now = new long[1];
+        governor.setListener((from, to, reason) -> changes.add(new Change(now[0] / 1_000_000, from, to, reason)));
+        for (GovernorTrace.Event event : events) {
+            now[0] = event.timeNanos;
+            event.applyTo(governor);
+        }
+        return changes;
+    }
+
+    private static void assertChange(Change change, long timeMs, RenderLevel from, RenderLevel to,
+                                     RenderGovernor.Reason reason) {
+        String message = change.toString();
+        assertEquals(message, timeMs, change.timeMs);
+        assertEquals(message, from, change.from);
+        assertEquals(message, to, change.to);
+        assertEquals(message, reason, change.reason);
+    }
+
+    @Test
+    public void thermalRampDegradesStepwiseAndRecoversAfterHold() throws IOException {
+        List<Change> changes = replay("thermal_ramp.csv");
+        assertEquals(changes.toString(), 6, changes.size());
+        // LIGHT在1000ms出现，保持2秒后降级
+        assertChange(changes.get(0), 3000, RenderLevel.FULL, RenderLevel.REDUCED_RATE, RenderGovernor.Reason.THERMAL);
+        // MODERATE在4000ms出现，重新计时2秒
+        assertChange(changes.get(1), 6000, RenderLevel.REDUCED_RATE, RenderLevel.REDUCED_SCALE, RenderGovernor.Reason.THERMAL);
+        // CRITICAL立即降到最低
+        assertChange(changes.get(2), 7000, RenderLevel.REDUCED_SCALE, RenderLevel.MINIMAL, RenderGovernor.Reason.THERMAL);
+        // 8000ms恢复正常，每级回升间隔10秒
+        assertChange(changes.get(3), 18_000, RenderLevel.MINIMAL, RenderLevel.REDUCED_SCALE, RenderGovernor.Reason.RECOVERY);
+        assertChange(changes.get(4), 28_000, RenderLevel.REDUCED_SCALE, RenderLevel.REDUCED_RATE, RenderGovernor.Reason.RECOVERY);
+        assertChange(changes.get(5), 38_000, RenderLevel.REDUCED_RATE, RenderLevel.FULL, RenderGovernor.Reason.RECOVERY);
+    }
+
+    @Test
+    public void batteryLowersRateUntilExternalPowerReturns() throws IOException {
+        List<Change> changes = replay("battery.csv");
+        assertEquals(changes.toString(), 2, changes.size());
+        assertChange(changes.get(0), 2500, RenderLevel.FULL, RenderLevel.REDUCED_RATE, RenderGovernor.Reason.POWER);
+        assertChange(changes.get(1), 15_000, RenderLevel.REDUCED_RATE, RenderLevel.FULL, RenderGovernor.Reason.RECOVERY);
+    }
+
+    @Test
+    public void sustainedFrameCostDegradesOnceAndRecovers() throws IOException {
+        List<Change> changes = replay("frame_cost_overload.csv");
+        assertEquals(changes.toString(), 2, changes.size());
+        Change degrade = changes.get(0);
+        assertEquals(RenderLevel.FULL, degrade.from);
+        assertEquals(RenderLevel.REDUCED_RATE, degrade.to);
+        assertEquals(RenderGovernor.Reason.FRAME_COST, degrade.reason);
+        // 首帧即超预算，降级不早于滞回时间，且在下一帧内发生
+        assertTrue(degrade.toString(), degrade.timeMs >= DEGRADE_HOLD_MS && degrade.timeMs < DEGRADE_HOLD_MS + 33);
+
+        // 15ms在30fps预算内，降一级后稳定；4000ms后耗时下降，回升至少等待10秒
+        Change recover = changes.get(1);
+        assertEquals(RenderLevel.REDUCED_RATE, recover.from);
+        assertEquals(RenderLevel.FULL, recover.to);
+        assertEquals(RenderGovernor.Reason.RECOVERY, recover.reason);
+        assertTrue(recover.toString(), recover.timeMs >= 4000 + RECOVER_HOLD_MS);
+        assertTrue(recover.toString(), recover.timeMs < 4000 + RECOVER_HOLD_MS + 500);
+    }
+
+    @Test
+    public void shortFrameCostSpikeIsAbsorbedByHysteresis() throws IOException {
+        assertEquals(0, replay("frame_cost_spike.csv").size());
+    }
+
+    @Test
+    public void malformedTraceLineIsRejected() {
+        try {
+            GovernorTrace.read(new BufferedReader(new StringReader("0,thermal,1\n100,fan,2\n")));
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2"));
+        }
+    }
+}
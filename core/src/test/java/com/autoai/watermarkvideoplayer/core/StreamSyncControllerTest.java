@@ -0,0 +1,215 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamSyncControllerTest {
+    private static final long FRAME_US = 33_333;
+    private static final long STEP_NANOS = 1_000_000;
+
+    private long nowNanos;
+    private MediaClock clock;
+
+    /**
+     * Decoder model: frame n carries timestamp n * FRAME_US plus jitter. The first frame is
+     * output at once for preroll, later frames leadUs before they are due (negative for a
+     * decoder that lags), counted from the start of the simulation
+     */
+    private final class SimulatedDecoder {
+        final int stream;
+        final long firstPtsUs;
+        final long leadUs;
+        final long jitterUs;
+        final Random random;
+        int frame = 0;
+        long ptsUs;
+
+        SimulatedDecoder(int stream, long firstPtsUs, long leadUs, long jitterUs, long seed) {
+            this.stream = stream;
+            this.firstPtsUs = firstPtsUs;
+            this.leadUs = leadUs;
+            this.jitterUs = jitterUs;
+            this.random = new Random(seed);
+            ptsUs = nextPts();
+        }
+
+        long nextPts() {
+            long jitter = jitterUs > 0 ? (long) (random.nextInt((int) (2 * jitterUs + 1))) - jitterUs : 0;
+            return firstPtsUs + frame * FRAME_US + jitter;
+        }
+
+        boolean isOutput() {
+            return frame == 0 || nowNanos >= (frame * FRAME_US - leadUs) * 1000;
+        }
+
+        void step(StreamSyncController sync) {
+            if (!isOutput()) {
+                return;
+            }
+            StreamSyncController.Action action = sync.decide(stream, ptsUs);
+            if (action != StreamSyncController.Action.WAIT) {
+                frame++;
+                ptsUs = nextPts();
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        nowNanos = 0;
+        clock = new MediaClock(() -> nowNanos);
+    }
+
+    private void run(StreamSyncController sync, SimulatedDecoder[] decoders, int frames) {
+        long endNanos = frames * FRAME_US * 1000;
+        while (nowNanos < endNanos) {
+            for (SimulatedDecoder decoder : decoders) {
+                decoder.step(sync);
+            }
+            nowNanos += STEP_NANOS;
+        }
+    }
+
+    @Test
+    public void prerollStartsClockAtEarliestFirstFrame() {
+        StreamSyncController sync = new StreamSyncController(clock, 2);
+        assertEquals(StreamSyncController.Action.WAIT, sync.decide(0, 120_000));
+        assertFalse(sync.isPrerolled());
+        nowNanos = 5_000_000;
+        sync.decide(1, 100_000);
+        assertTrue(sync.isPrerolled());
+        assertEquals(100_000, clock.getPositionUs());
+    }
+
+    @Test
+    public void jitteredTimestampsRenderEveryFrame() {
+        StreamSyncController sync = new StreamSyncController(clock, 4);
+        SimulatedDecoder[] decoders = new SimulatedDecoder[4];
+        for (int i = 0; i < decoders.length; i++) {
+            decoders[i] = new SimulatedDecoder(i, 0, 10_000, 4_000, 31 * i + 7);
+        }
+        run(sync, decoders, 300);
+
+        for (int i = 0; i < decoders.length; i++) {
+            assertEquals(0, sync.getDroppedFrames(i));
+            assertTrue(sync.getRenderedFrames(i) >= 295);
+            assertTrue(Math.abs(sync.getDriftUs(i)) < 5_000);
+            assertEquals(0.0f, sync.getOffsetUs(i), 1_000.0f);
+        }
+    }
+
+    @Test
+    public void lateDecoderIsAbsorbedByOffset() {
+        StreamSyncController sync = new StreamSyncController(clock, 2);
+        SimulatedDecoder[] decoders = {
+                new SimulatedDecoder(0, 0, 10_000, 2_000, 1),
+                // 输出总是比到期时间晚45ms，超过40ms丢帧阈值
+                new SimulatedDecoder(1, 0, -45_000, 2_000, 2)
+        };
+        run(sync, decoders, 300);
+
+        assertTrue(sync.getDroppedFrames(1) < 30);
+        assertTrue(sync.getRenderedFrames(1) > 250);
+        assertTrue(sync.getOffsetUs(1) > 30_000);
+        assertTrue(sync.getOffsetUs(1) <= 40_000);
+        assertEquals(0.0f, sync.getOffsetUs(0), 1_000.0f);
+    }
+
+    @Test
+    public void offsetDecaysWhenDecoderRecovers() {
+        StreamSyncController sync = new StreamSyncController(clock, 1);
+        SimulatedDecoder late = new SimulatedDecoder(0, 0, -30_000, 0, 1);
+        run(sync, new SimulatedDecoder[]{late}, 150);
+        float lateOffset = sync.getOffsetUs(0);
+        assertTrue(lateOffset > 20_000);
+
+        // 解码器恢复为提前输出，偏移应逐步回落
+        SimulatedDecoder recovered = new SimulatedDecoder(0, 0, 10_000, 0, 1);
+        recovered.frame = late.frame;
+        recovered.ptsUs = recovered.nextPts();
+        run(sync, new SimulatedDecoder[]{recovered}, 450);
+        assertTrue(sync.getOffsetUs(0) < lateOffset / 4);
+    }
+
+    @Test
+    public void prerollTimeoutStartsWithoutSilentStream() {
+        StreamSyncController sync = new StreamSyncController(clock, 3, 5_000, 40_000, 250_000, 200_000);
+        SimulatedDecoder[] decoders = {
+                new SimulatedDecoder(0, 0, 10_000, 0, 1),
+                new SimulatedDecoder(1, 0, 10_000, 0, 2)
+        };
+        nowNanos = 150_000_000;
+        for (SimulatedDecoder decoder : decoders) {
+            decoder.step(sync);
+        }
+        assertFalse(sync.isPrerolled());
+        run(sync, decoders, 60);
+
+        assertTrue(sync.isPrerolled());
+        assertTrue(sync.getRenderedFrames(0) > 0);
+        assertTrue(sync.getRenderedFrames(1) > 0);
+        assertEquals(0, sync.getRenderedFrames(2));
+    }
+
+    @Test
+    public void removedStreamReleasesPreroll() {
+        StreamSyncController sync = new StreamSyncController(clock, 2);
+        assertEquals(StreamSyncController.Action.WAIT, sync.decide(0, 0));
+        sync.removeStream(1);
+        assertTrue(sync.isRemoved(1));
+        assertTrue(sync.isPrerolled());
+        assertEquals(StreamSyncController.Action.RENDER, sync.decide(0, 0));
+    }
+
+    @Test
+    public void removedStreamDoesNotBlockLoop() {
+        StreamSyncController sync = new StreamSyncController(clock, 2);
+        sync.decide(0, 0);
+        sync.decide(1, 0);
+        int generation = sync.markEnded(0);
+        assertEquals(generation, sync.getGeneration());
+        sync.removeStream(1);
+        assertEquals(generation + 1, sync.getGeneration());
+        assertFalse(sync.isPrerolled());
+
+        // 下一轮只等待剩余的流
+        sync.decide(0, 0);
+        assertTrue(sync.isPrerolled());
+    }
+
+    @Test
+    public void streamEndedDuringPrerollIsNotWaitedFor() {
+        StreamSyncController sync = new StreamSyncController(clock, 2);
+        sync.markEnded(1);
+        sync.decide(0, 0);
+        assertTrue(sync.isPrerolled());
+    }
+
+    @Test
+    public void streamFarBehindResyncsOnceThenCatchesUp() {
+        StreamSyncController sync = new StreamSyncController(clock, 1);
+        sync.decide(0, 0);
+        nowNanos = 1_000_000_000L;
+        assertEquals(StreamSyncController.Action.RESYNC, sync.decide(0, 100_000));
+        // seek回的关键帧仍然落后时只丢弃，不再重复seek
+        assertEquals(StreamSyncController.Action.DROP, sync.decide(0, 600_000));
+        assertEquals(StreamSyncController.Action.RENDER, sync.decide(0, 1_000_000));
+        assertEquals(0.0f, sync.getOffsetUs(0), 0.0f);
+    }
+
+    @Test
+    public void pausedClockHoldsFrames() {
+        StreamSyncController sync = new StreamSyncController(clock, 1);
+        sync.decide(0, 0);
+        clock.pause();
+        nowNanos = 1_000_000_000L;
+        assertEquals(StreamSyncController.Action.WAIT, sync.decide(0, 33_333));
+        assertEquals(Long.MAX_VALUE, sync.timeUntilDueUs(0, 33_333));
+    }
+}
@@ -0,0 +1,48 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TextOverlayTest {
+
+    private static TextOverlay newOverlay() {
+        TextOverlay overlay = new TextOverlay(new GlyphAtlas(8, 12), 4, 8);
+        overlay.setViewport(640, 480, 12.0f);
+        overlay.rebuild();
+        overlay.clearDirtyRange();
+        return overlay;
+    }
+
+    @Test
+    public void nullTextClearsSlot() {
+        TextOverlay overlay = newOverlay();
+        assertTrue(overlay.setText(1, "CAM"));
+        overlay.rebuild();
+        overlay.clearDirtyRange();
+
+        assertTrue(overlay.setText(1, null));
+        assertTrue(overlay.rebuild());
+        float[] vertices = overlay.getVertices();
+        for (int i = overlay.getDirtyStart(); i < overlay.getDirtyEnd(); i++) {
+            assertEquals(0.0f, vertices[i], 0.0f);
+        }
+        assertFalse(overlay.setText(1, null));
+        assertFalse(overlay.setText(1, ""));
+    }
+
+    @Test
+    public void changedSlotMarksOnlyItsRange() {
+        TextOverlay overlay = newOverlay();
+        overlay.setText(1, "AB");
+        assertTrue(overlay.rebuild());
+        assertEquals(4 * TextOverlay.FLOATS_PER_GLYPH, overlay.getDirtyStart());
+        assertEquals(12 * TextOverlay.FLOATS_PER_GLYPH, overlay.getDirtyEnd());
+
+        overlay.clearDirtyRange();
+        assertFalse(overlay.setText(1, "AB"));
+        assertFalse(overlay.rebuild());
+    }
+}
@@ -0,0 +1,113 @@
+package com.autoai.watermarkvideoplayer.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ZoomStateTest {
+    private static final float EPS = 1e-5f;
+    private static final float[] FULL = {0.0f, 0.0f, 1.0f, 1.0f};
+    // 四宫格中的一个象限（纹理坐标）
+    private static final float[] QUADRANT = {0.5f, 0.0f, 0.5f, 0.5f};
+
+    private static float[] window(ZoomState zoom) {
+        float[] out = new float[4];
+        zoom.apply(FULL, out);
+        return out;
+    }
+
+    private static void assertInside(float[] base, float[] region) {
+        assertTrue(region[0] >= base[0] - EPS);
+        assertTrue(region[1] >= base[1] - EPS);
+        assertTrue(region[0] + region[2] <= base[0] + base[2] + EPS);
+        assertTrue(region[1] + region[3] <= base[1] + base[3] + EPS);
+    }
+
+    @Test
+    public void pinchKeepsContentUnderFocusInPlace() {
+        ZoomState zoom = new ZoomState();
+        assertTrue(zoom.scaleBy(2.0f, 0.25f, 0.75f));
+        float[] w = window(zoom);
+        assertEquals(0.25f, w[0] + 0.25f * w[2], EPS);
+        assertEquals(0.75f, w[1] + 0.75f * w[3], EPS);
+
+        // 再次以另一焦点缩放，焦点下的内容仍不动
+        float contentX = w[0] + 0.4f * w[2];
+        float contentY = w[1] + 0.6f * w[3];
+        assertTrue(zoom.scaleBy(1.5f, 0.4f, 0.6f));
+        w = window(zoom);
+        assertEquals(3.0f, zoom.getZoom(), EPS);
+        assertEquals(contentX, w[0] + 0.4f * w[2], EPS);
+        assertEquals(contentY, w[1] + 0.6f * w[3], EPS);
+    }
+
+    @Test
+    public void panClampsAtRegionEdges() {
+        ZoomState zoom = new ZoomState();
+        zoom.scaleBy(2.0f, 0.5f, 0.5f);
+        assertArrayEquals(new float[]{0.25f, 0.25f, 0.5f, 0.5f}, window(zoom), EPS);
+
+        assertTrue(zoom.panBy(10.0f, 10.0f));
+        assertArrayEquals(new float[]{0.5f, 0.5f, 0.5f, 0.5f}, window(zoom), EPS);
+        assertFalse(zoom.panBy(1.0f, 1.0f));
+
+        assertTrue(zoom.panBy(-10.0f, -10.0f));
+        assertArrayEquals(new float[]{0.0f, 0.0f, 0.5f, 0.5f}, window(zoom), EPS);
+
+        // 平移量按可见范围换算：拖动半个视图移动四分之一区域
+        assertTrue(zoom.panBy(0.5f, 0.0f));
+        assertArrayEquals(new float[]{0.25f, 0.0f, 0.5f, 0.5f}, window(zoom), EPS);
+    }
+
+    @Test
+    public void unzoomedWindowCannotPan() {
+        ZoomState zoom = new ZoomState();
+        assertFalse(zoom.isZoomed());
+        assertFalse(zoom.panBy(0.3f, -0.3f));
+        assertArrayEquals(FULL, window(zoom), EPS);
+    }
+
+    @Test
+    public void zoomIsBoundedAndStaysInsideQuadrant() {
+        ZoomState zoom = new ZoomState();
+        assertFalse(zoom.scaleBy(0.5f, 0.5f, 0.5f));
+        assertFalse(zoom.scaleBy(0.0f, 0.5f, 0.5f));
+        assertFalse(zoom.scaleBy(Float.NaN, 0.5f, 0.5f));
+
+        assertTrue(zoom.scaleBy(100.0f, 1.0f, 1.0f));
+        assertEquals(ZoomState.MAX_ZOOM, zoom.getZoom(), EPS);
+        float[] out = new float[4];
+        zoom.apply(QUADRANT, out);
+        assertInside(QUADRANT, out);
+        assertEquals(QUADRANT[2] / ZoomState.MAX_ZOOM, out[2], EPS);
+        assertEquals(QUADRANT[0] + QUADRANT[2], out[0] + out[2], EPS);
+        assertEquals(QUADRANT[1] + QUADRANT[3], out[1] + out[3], EPS);
+
+        // 焦点超出区域时按边界处理
+        zoom.reset();
+        assertTrue(zoom.scaleBy(4.0f, -2.0f, 3.0f));
+        zoom.apply(QUADRANT, out);
+        assertInside(QUADRANT, out);
+
+        assertTrue(zoom.scaleBy(0.001f, 0.5f, 0.5f));
+        assertEquals(ZoomState.MIN_ZOOM, zoom.getZoom(), EPS);
+        zoom.apply(QUADRANT, out);
+        assertArrayEquals(QUADRANT, out, EPS);
+    }
+
+    @Test
+    public void applyMapsWindowIntoBaseAndAllowsAliasing() {
+        ZoomState zoom = new ZoomState();
+        zoom.scaleBy(2.0f, 1.0f, 1.0f);
+        float[] region = QUADRANT.clone();
+        zoom.apply(region, region);
+        assertArrayEquals(new float[]{0.75f, 0.25f, 0.25f, 0.25f}, region, EPS);
+
+        zoom.reset();
+        zoom.apply(QUADRANT, region);
+        assertArrayEquals(QUADRANT, region, EPS);
+    }
+}